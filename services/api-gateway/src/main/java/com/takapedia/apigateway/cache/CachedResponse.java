@@ -0,0 +1,86 @@
+package com.takapedia.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Snapshot response upstream: status, header yang aman di-replay, dan body utuh
+public record CachedResponse(HttpStatusCode status,
+                             HttpHeaders headers,
+                             byte[] body,
+                             String etag,
+                             Instant storedAt,
+                             Duration ttl) {
+
+    // Header per-koneksi/per-request yang tidak boleh di-replay ke client lain
+    private static final Set<String> UNREPLAYABLE_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "date", "set-cookie",
+            "age", "x-cache", "x-coalesced");
+
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders headers, byte[] body, Duration ttl) {
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(replayable(headers)), body,
+                etagOf(body), Instant.now(), ttl);
+    }
+
+    private static HttpHeaders replayable(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            // Header rate limit milik request yang mengisi cache, bukan milik request berikutnya
+            if (!UNREPLAYABLE_HEADERS.contains(lower) && !lower.startsWith("x-ratelimit-")) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return copy;
+    }
+
+    // Strong ETag dari isi body, jadi dua instance gateway menghasilkan ETag yang sama
+    static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        HttpHeaders target = response.getHeaders();
+        // Header yang sudah diset filter (mis. ETag digest dari edge cache) tidak ditimpa header upstream
+        headers.forEach((name, values) -> {
+            if (!target.containsHeader(name)) {
+                target.put(name, values);
+            }
+        });
+        target.setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+
+    public long ageSeconds() {
+        return Math.max(0, Duration.between(storedAt, Instant.now()).toSeconds());
+    }
+
+    // Perkiraan ukuran di heap, dipakai sebagai bobot entry cache
+    int weight() {
+        int headerBytes = 0;
+        for (var entry : headers.headerSet()) {
+            headerBytes += entry.getKey().length();
+            for (String value : entry.getValue()) {
+                headerBytes += value.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return body.length + headerBytes;
+    }
+}
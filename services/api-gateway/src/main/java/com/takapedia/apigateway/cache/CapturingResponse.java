@@ -0,0 +1,79 @@
+package com.takapedia.apigateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+// Body diteruskan ke client apa adanya (streaming), sambil disalin ke memori.
+// Body lebih besar dari maxBytes tetap diteruskan, hanya tidak disalin.
+class CapturingResponse extends ServerHttpResponseDecorator {
+
+    @FunctionalInterface
+    interface CaptureDecision {
+
+        // Dipanggil saat status dan header upstream sudah ada; null → body tidak perlu disalin
+        Consumer<byte[]> begin(ServerHttpResponse response);
+    }
+
+    private final long maxBytes;
+    private final CaptureDecision decision;
+
+    CapturingResponse(ServerHttpResponse delegate, long maxBytes, CaptureDecision decision) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+        this.decision = decision;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        long contentLength = getHeaders().getContentLength();
+        if (contentLength > maxBytes) {
+            return super.writeWith(body);
+        }
+        Consumer<byte[]> onCaptured = decision.begin(getDelegate());
+        if (onCaptured == null) {
+            return super.writeWith(body);
+        }
+
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        boolean[] overflow = {false};
+        boolean[] stored = {false};
+        Flux<DataBuffer> tee = Flux.<DataBuffer>from(body)
+                .doOnNext(buffer -> {
+                    if (overflow[0]) {
+                        return;
+                    }
+                    if (captured.size() + buffer.readableByteCount() > maxBytes) {
+                        overflow[0] = true;
+                        return;
+                    }
+                    try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                        while (it.hasNext()) {
+                            ByteBuffer chunk = it.next();
+                            byte[] bytes = new byte[chunk.remaining()];
+                            chunk.get(bytes);
+                            captured.writeBytes(bytes);
+                        }
+                    }
+                    // Body lengkap sesuai Content-Length → simpan sebelum chunk terakhir sampai ke client,
+                    // supaya request berikutnya (atau purge) tidak balapan dengan penyimpanan entry
+                    if (captured.size() == contentLength) {
+                        stored[0] = true;
+                        onCaptured.accept(captured.toByteArray());
+                    }
+                })
+                .doOnComplete(() -> {
+                    if (!overflow[0] && !stored[0]) {
+                        onCaptured.accept(captured.toByteArray());
+                    }
+                });
+        return super.writeWith(tee);
+    }
+}
@@ -0,0 +1,31 @@
+package com.takapedia.apigateway.cache;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/edgecache → statistik, DELETE /actuator/edgecache?path=/api/v1/products → purge
+@Component
+@Endpoint(id = "edgecache")
+public class EdgeCacheEndpoint {
+
+    private final EdgeResponseCache cache;
+
+    public EdgeCacheEndpoint(EdgeResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable String path) {
+        return Map.of("purged", cache.purge(path));
+    }
+}
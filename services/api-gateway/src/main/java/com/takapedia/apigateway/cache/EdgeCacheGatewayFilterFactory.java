@@ -0,0 +1,153 @@
+package com.takapedia.apigateway.cache;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// Melayani GET yang sering berulang langsung dari gateway tanpa menyentuh downstream
+@Component
+public class EdgeCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<EdgeCacheGatewayFilterFactory.Config> {
+
+    // Harus jalan sebelum NettyWriteResponseFilter supaya response yang ditulis adalah decorator kita
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final EdgeResponseCache cache;
+
+    public EdgeCacheGatewayFilterFactory(EdgeResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String key = EdgeResponseCache.keyOf(request);
+            // Client boleh minta bypass (Cache-Control: no-cache); hasilnya tetap dipakai untuk refresh entry
+            boolean bypass = hasNoCache(request.getHeaders());
+            CachedResponse cached = bypass ? null : cache.get(key);
+            if (cached != null) {
+                return serve(exchange, cached);
+            }
+
+            exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            // Cache selalu menyimpan body tanpa kompresi, jadi bisa dilayani ke client mana pun
+            ServerHttpRequest identity = request.mutate()
+                    .headers(h -> h.remove(HttpHeaders.ACCEPT_ENCODING))
+                    .build();
+            return chain.filter(exchange.mutate()
+                    .request(identity)
+                    .response(new CapturingResponse(exchange.getResponse(), config.getMaxEntrySize().toBytes(),
+                            response -> store(key, response, config.getTtl())))
+                    .build());
+        }, ORDER);
+    }
+
+    private Consumer<byte[]> store(String key, ServerHttpResponse response, Duration routeTtl) {
+        HttpStatusCode status = response.getStatusCode();
+        Duration ttl = ttlFor(response.getHeaders(), routeTtl);
+        if (status == null || status.value() != 200 || ttl == null) {
+            return null;
+        }
+        HttpHeaders headers = response.getHeaders();
+        return body -> cache.put(key, CachedResponse.of(status, headers, body, ttl));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+
+        // checkNotModified menangani If-None-Match (termasuk daftar ETag dan "*") dan set status 304
+        if (exchange.checkNotModified(cached.etag())) {
+            return response.setComplete();
+        }
+
+        headers.setETag(cached.etag());
+        return cached.writeTo(response);
+    }
+
+    private static boolean hasNoCache(HttpHeaders headers) {
+        String cacheControl = headers.getFirst(HttpHeaders.CACHE_CONTROL);
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    // TTL dari konfigurasi route, dipersingkat kalau upstream minta max-age lebih kecil.
+    // null → response tidak boleh di-cache.
+    static Duration ttlFor(HttpHeaders headers, Duration routeTtl) {
+        if (headers.containsHeader(HttpHeaders.SET_COOKIE)
+                || headers.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                || "*".equals(headers.getFirst(HttpHeaders.VARY))) {
+            return null;
+        }
+        String cacheControl = headers.getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl == null) {
+            return routeTtl;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains("no-store") || directives.contains("private")) {
+            return null;
+        }
+        Duration ttl = routeTtl;
+        for (String directive : directives.split(",")) {
+            directive = directive.trim();
+            if (directive.startsWith("max-age=")) {
+                try {
+                    Duration maxAge = Duration.ofSeconds(Long.parseLong(directive.substring(8)));
+                    if (maxAge.compareTo(ttl) < 0) {
+                        ttl = maxAge;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // max-age tidak valid → pakai TTL route
+                }
+            }
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public Config setTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public Config setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+    }
+}
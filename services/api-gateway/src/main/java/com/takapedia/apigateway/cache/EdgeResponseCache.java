@@ -0,0 +1,132 @@
+package com.takapedia.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Cache response GET di gateway, dibatasi total byte dan TTL per entry
+@Component
+public class EdgeResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+
+    public EdgeResponseCache(@Value("${gateway.edge-cache.max-size:64MB}") DataSize maxSize,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.weight())
+                .expireAfter(new ExpireAfterTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.edge");
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    // Hapus entry yang path-nya diawali prefix; tanpa prefix → kosongkan semua
+    public long purge(String pathPrefix) {
+        if (pathPrefix == null || pathPrefix.isBlank()) {
+            long size = cache.estimatedSize();
+            cache.invalidateAll();
+            return size;
+        }
+        String prefix = normalizePath(pathPrefix);
+        String subtree = prefix.equals("/") ? prefix : prefix + "/";
+        List<String> keys = cache.asMap().keySet().stream()
+                .map(key -> Map.entry(key, pathOf(key)))
+                .filter(e -> e.getValue().equals(prefix) || e.getValue().startsWith(subtree))
+                .map(Map.Entry::getKey)
+                .toList();
+        cache.invalidateAll(keys);
+        return keys.size();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        return Map.of(
+                "entries", cache.estimatedSize(),
+                "weightedSize", cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount());
+    }
+
+    // Key = path yang dinormalisasi + query param yang diurutkan per nama,
+    // jadi ?q=a&size=10 dan ?size=10&q=a jatuh ke entry yang sama
+    public static String keyOf(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(normalizePath(request.getURI().getRawPath()));
+        MultiValueMap<String, String> params = request.getQueryParams();
+        if (params.isEmpty()) {
+            return key.toString();
+        }
+
+        char separator = '?';
+        for (Map.Entry<String, List<String>> param : new TreeMap<>(params).entrySet()) {
+            if (param.getKey().isEmpty()) {
+                continue;
+            }
+            for (String value : param.getValue()) {
+                key.append(separator).append(encode(param.getKey())).append('=')
+                        .append(value == null ? "" : encode(value));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    static String normalizePath(String path) {
+        String normalized = path.replaceAll("/{2,}", "/");
+        if (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.isEmpty() ? "/" : normalized;
+    }
+
+    private static String pathOf(String key) {
+        int query = key.indexOf('?');
+        return query < 0 ? key : key.substring(0, query);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class ExpireAfterTtl implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.takapedia.apigateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+// GET identik yang datang saat request yang sama masih in-flight tidak diteruskan lagi ke downstream;
+// follower menunggu response milik leader
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    // Setelah EdgeCache (hit tidak perlu di-coalesce), sebelum NettyWriteResponseFilter
+    public static final int ORDER = EdgeCacheGatewayFilterFactory.ORDER + 1;
+
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteMeters> meters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!config.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String routeId = routeId(exchange);
+            String key = routeId + " " + EdgeResponseCache.keyOf(exchange.getRequest());
+            RouteMeters routeMeters = meters.computeIfAbsent(routeId, this::registerMeters);
+
+            InFlight candidate = new InFlight();
+            InFlight existing = inFlight.putIfAbsent(key, candidate);
+            if (existing == null) {
+                return lead(exchange, chain, key, candidate, config, routeMeters);
+            }
+            existing.followers.incrementAndGet();
+            return follow(exchange, chain, existing, config, routeMeters);
+        }, ORDER);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, InFlight leader,
+                            Config config, RouteMeters routeMeters) {
+        routeMeters.leaders.increment();
+        // Follower bisa punya Accept-Encoding berbeda, jadi leader selalu minta body tanpa kompresi
+        ServerHttpRequest identity = exchange.getRequest().mutate()
+                .headers(h -> h.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(),
+                config.getMaxBodySize().toBytes(),
+                response -> {
+                    // Hanya 2xx yang dibagi: 5xx/429 sesaat milik leader tidak boleh menular ke semua follower
+                    if (response.getStatusCode() == null || !response.getStatusCode().is2xxSuccessful()
+                            || response.getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)
+                            || response.getHeaders().containsHeader(HttpHeaders.SET_COOKIE)) {
+                        return null;
+                    }
+                    return body -> leader.complete(key, inFlight,
+                            CachedResponse.of(response.getStatusCode(), response.getHeaders(), body, Duration.ZERO));
+                });
+
+        return chain.filter(exchange.mutate().request(identity).response(capturing).build())
+                // Leader gagal, body terlalu besar, atau dibatalkan → follower jalan sendiri
+                .doFinally(signal -> {
+                    leader.complete(key, inFlight, null);
+                    routeMeters.fanIn.record(1 + leader.followers.get());
+                });
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, InFlight leader,
+                              Config config, RouteMeters routeMeters) {
+        return leader.result.asMono()
+                // Bounded wait: leader yang terlalu lama tidak boleh menahan follower tanpa batas
+                .timeout(config.getMaxWait(), Mono.empty())
+                .<Mono<Void>>map(shared -> {
+                    routeMeters.followers.increment();
+                    exchange.getResponse().getHeaders().set(COALESCED_HEADER, "true");
+                    return shared.writeTo(exchange.getResponse());
+                })
+                .defaultIfEmpty(Mono.defer(() -> {
+                    routeMeters.fallbacks.increment();
+                    return chain.filter(exchange);
+                }))
+                .flatMap(action -> action);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private RouteMeters registerMeters(String routeId) {
+        return new RouteMeters(
+                meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", "leader"),
+                meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", "follower"),
+                meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", "fallback"),
+                DistributionSummary.builder("gateway.coalescing.fan_in")
+                        .description("Jumlah request yang menumpang pada satu request upstream")
+                        .tag("route", routeId)
+                        .register(meterRegistry));
+    }
+
+    private record RouteMeters(Counter leaders, Counter followers, Counter fallbacks, DistributionSummary fanIn) {
+    }
+
+    private static final class InFlight {
+
+        private final Sinks.One<CachedResponse> result = Sinks.one();
+        private final AtomicInteger followers = new AtomicInteger();
+
+        // Lepas dari map dulu, baru publish: request yang datang setelah ini jadi leader baru
+        void complete(String key, Map<String, InFlight> inFlight, CachedResponse response) {
+            inFlight.remove(key, this);
+            if (response != null) {
+                result.tryEmitValue(response);
+            } else {
+                result.tryEmitEmpty();
+            }
+        }
+    }
+
+    public static class Config {
+
+        private boolean enabled = true;
+
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public Config setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public Config setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public Config setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+    }
+}
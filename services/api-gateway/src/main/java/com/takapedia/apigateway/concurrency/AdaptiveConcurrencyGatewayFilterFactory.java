@@ -0,0 +1,200 @@
+package com.takapedia.apigateway.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setResponseStatus;
+
+// Melindungi downstream yang melambat: request di atas limit adaptif langsung ditolak 503,
+// bukan ikut antre di service yang sudah kewalahan
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private final Map<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        // Refresh route dengan batas yang sama memakai limiter lama (limit yang sudah dipelajari tetap);
+        // batas berubah → limiter baru
+        GradientConcurrencyLimiter limiter = limiters.compute(routeId, (id, existing) -> {
+            if (existing == null) {
+                register(id);
+            } else if (existing.hasBoundsOf(config)) {
+                return existing;
+            }
+            return new RouteLimiter(config);
+        }).limiter();
+
+        return (exchange, chain) -> {
+            Lane lane = Lane.of(exchange.getRequest());
+            int inFlightAtStart = limiter.inFlight();
+            if (!limiter.tryAcquire(config.shareOf(lane))) {
+                meterRegistry.counter("gateway.concurrency.rejected",
+                        "route", routeId, "lane", lane.name().toLowerCase(Locale.ROOT)).increment();
+                setResponseStatus(exchange, HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, config.getRetryAfter().toSeconds())));
+                return exchange.getResponse().setComplete();
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            limiter.release(-1, inFlightAtStart, false);
+                            return;
+                        }
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        boolean dropped = signal == SignalType.ON_ERROR
+                                || (status != null && status.is5xxServerError());
+                        limiter.release(System.nanoTime() - start, inFlightAtStart, dropped);
+                    });
+        };
+    }
+
+    // Gauge membaca limiter yang sedang aktif, jadi tetap benar setelah limiter diganti
+    private void register(String routeId) {
+        Gauge.builder("gateway.concurrency.limit", limiters, l -> l.get(routeId).limiter().limit())
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in_flight", limiters, l -> l.get(routeId).limiter().inFlight())
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    private record RouteLimiter(int initialLimit, int minLimit, int maxLimit, GradientConcurrencyLimiter limiter) {
+
+        RouteLimiter(Config config) {
+            this(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                    new GradientConcurrencyLimiter(config.getInitialLimit(), config.getMinLimit(),
+                            config.getMaxLimit()));
+        }
+
+        boolean hasBoundsOf(Config config) {
+            return initialLimit == config.getInitialLimit() && minLimit == config.getMinLimit()
+                    && maxLimit == config.getMaxLimit();
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private int initialLimit = 50;
+
+        private int minLimit = 5;
+
+        private int maxLimit = 500;
+
+        // Porsi limit per lane: saat in-flight mencapai 60% limit, request anonim mulai ditolak
+        private double criticalShare = 1.0;
+
+        private double normalShare = 0.85;
+
+        private double lowShare = 0.6;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        private String routeId;
+
+        double shareOf(Lane lane) {
+            return switch (lane) {
+                case CRITICAL -> criticalShare;
+                case NORMAL -> normalShare;
+                case LOW -> lowShare;
+            };
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public Config setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public Config setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public Config setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public double getCriticalShare() {
+            return criticalShare;
+        }
+
+        public Config setCriticalShare(double criticalShare) {
+            this.criticalShare = criticalShare;
+            return this;
+        }
+
+        public double getNormalShare() {
+            return normalShare;
+        }
+
+        public Config setNormalShare(double normalShare) {
+            this.normalShare = normalShare;
+            return this;
+        }
+
+        public double getLowShare() {
+            return lowShare;
+        }
+
+        public Config setLowShare(double lowShare) {
+            this.lowShare = lowShare;
+            return this;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public Config setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+            return this;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.takapedia.apigateway.concurrency;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+// Prioritas request saat route mendekati limit-nya: LOW dibuang duluan, CRITICAL paling akhir
+public enum Lane {
+    // Tulis dari user yang login (mis. membuat order)
+    CRITICAL,
+    // Baca dari user yang login
+    NORMAL,
+    // Anonim (mis. search tanpa login)
+    LOW;
+
+    // Dipanggil setelah JwtAuthenticationFilter, jadi X-User-Id sudah pasti hasil verifikasi gateway
+    public static Lane of(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst("X-User-Id");
+        if (userId == null || userId.isBlank()) {
+            return LOW;
+        }
+        HttpMethod method = request.getMethod();
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS
+                ? NORMAL
+                : CRITICAL;
+    }
+}
@@ -0,0 +1,35 @@
+package com.takapedia.apigateway.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket untuk hedge: tiap request menabung `ratio` kredit, tiap hedge memakai 1 kredit.
+// Dengan ratio <= 1, jumlah hedge tidak pernah melebihi jumlah request (beban maksimal 2x).
+final class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxCredits;
+    private final AtomicLong credits = new AtomicLong();
+
+    HedgeBudget(double ratio, int burst) {
+        this.depositPerRequest = Math.round(Math.max(0, Math.min(1.0, ratio)) * SCALE);
+        this.maxCredits = Math.max(1, burst) * SCALE;
+    }
+
+    void onRequest() {
+        credits.getAndUpdate(current -> Math.min(maxCredits, current + depositPerRequest));
+    }
+
+    boolean tryHedge() {
+        while (true) {
+            long current = credits.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (credits.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
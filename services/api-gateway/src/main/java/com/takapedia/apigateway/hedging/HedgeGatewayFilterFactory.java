@@ -0,0 +1,293 @@
+package com.takapedia.apigateway.hedging;
+
+import com.takapedia.apigateway.latency.LatencyRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+// Untuk GET idempoten: kalau instance utama belum menjawab setelah delay (percentile latency route),
+// kirim duplikat ke instance lain dan pakai response yang datang duluan
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    // Setelah URL tujuan ditentukan, sebelum NettyRoutingFilter
+    public static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+
+    public static final String HEDGED_HEADER = "X-Hedged";
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "host", "connection", "keep-alive", "transfer-encoding", "content-length", "te", "trailer", "upgrade");
+
+    private final WebClient webClient;
+    private final LatencyRecorder latencyRecorder;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteBudget> budgets = new ConcurrentHashMap<>();
+
+    // HttpClient milik gateway (pool, connect-timeout); response-timeout dipasang di sini karena
+    // NettyRoutingFilter menerapkannya per request, bukan di HttpClient
+    public HedgeGatewayFilterFactory(HttpClient httpClient, HttpClientProperties httpClientProperties,
+                                     LatencyRecorder latencyRecorder, MeterRegistry meterRegistry) {
+        super(Config.class);
+        HttpClient client = httpClientProperties.getResponseTimeout() != null
+                ? httpClient.responseTimeout(httpClientProperties.getResponseTimeout())
+                : httpClient;
+        this.webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(client)).build();
+        this.latencyRecorder = latencyRecorder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Percentile lain tidak punya histogram: delay diam-diam selalu jatuh ke maxDelay
+        if (!LatencyRecorder.isTracked(config.getPercentile())) {
+            throw new IllegalArgumentException("Hedge percentile " + config.getPercentile()
+                    + " tidak didukung, pilihan: " + Arrays.toString(LatencyRecorder.trackedPercentiles()));
+        }
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        // Refresh route dengan parameter budget yang sama memakai budget lama (kredit tetap); berubah → budget baru
+        HedgeBudget budget = budgets.compute(routeId, (id, existing) ->
+                existing != null && existing.hasParametersOf(config) ? existing : new RouteBudget(config)).budget();
+        AtomicInteger nextInstance = new AtomicInteger();
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            URI primary = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            List<URI> instances = config.getInstances();
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || isAlreadyRouted(exchange)
+                    || primary == null || instances == null || instances.isEmpty()) {
+                return chain.filter(exchange);
+            }
+
+            setAlreadyRouted(exchange);
+            budget.onRequest();
+            meterRegistry.counter("gateway.hedge.requests", "route", routeId).increment();
+
+            URI alternate = withInstance(primary,
+                    instances.get(Math.floorMod(nextInstance.getAndIncrement(), instances.size())));
+            Duration delay = hedgeDelay(routeId, config);
+            long start = System.nanoTime();
+
+            // Kalau primary gagal dan hedge tidak dikirim (budget habis), error primary yang diteruskan
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Mono<Outcome> first = send(exchange, primary)
+                    .doOnError(primaryError::set)
+                    .map(r -> new Outcome(r, false));
+            Mono<Outcome> hedge = Mono.delay(delay)
+                    .filter(tick -> {
+                        if (budget.tryHedge()) {
+                            meterRegistry.counter("gateway.hedge.sent", "route", routeId).increment();
+                            return true;
+                        }
+                        meterRegistry.counter("gateway.hedge.denied", "route", routeId).increment();
+                        return false;
+                    })
+                    .flatMap(tick -> send(exchange, alternate))
+                    .map(r -> new Outcome(r, true));
+
+            return Mono.firstWithValue(first, hedge)
+                    .onErrorMap(e -> primaryError.get() != null ? primaryError.get() : e)
+                    .flatMap(outcome -> {
+                        latencyRecorder.record(exchange, LatencyRecorder.UPSTREAM, System.nanoTime() - start);
+                        if (outcome.hedged()) {
+                            meterRegistry.counter("gateway.hedge.won", "route", routeId).increment();
+                            exchange.getResponse().getHeaders().set(HEDGED_HEADER, "true");
+                        }
+                        return write(exchange.getResponse(), outcome.response());
+                    });
+        }, ORDER);
+    }
+
+    // Delay = percentile latency upstream route ini, dibatasi [minDelay, maxDelay]; maxDelay kalau belum ada data
+    private Duration hedgeDelay(String routeId, Config config) {
+        Duration observed = latencyRecorder.percentile(routeId, LatencyRecorder.UPSTREAM, config.getPercentile());
+        if (observed == null) {
+            return config.getMaxDelay();
+        }
+        if (observed.compareTo(config.getMinDelay()) < 0) {
+            return config.getMinDelay();
+        }
+        return observed.compareTo(config.getMaxDelay()) > 0 ? config.getMaxDelay() : observed;
+    }
+
+    // Selesai begitu header response datang; body di-stream ke client, tidak ditampung di memori
+    private Mono<ResponseEntity<Flux<DataBuffer>>> send(ServerWebExchange exchange, URI uri) {
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> exchange.getRequest().getHeaders().forEach((name, values) -> {
+                    if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                        headers.put(name, values);
+                    }
+                }))
+                .retrieve()
+                // 4xx/5xx dari upstream diteruskan apa adanya, bukan jadi error
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .onErrorMap(HedgeGatewayFilterFactory::toGatewayError);
+    }
+
+    // Samakan dengan NettyRoutingFilter: timeout → 504, gagal konek/reset → 502
+    private static Throwable toGatewayError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Upstream timeout", error);
+            }
+        }
+        return new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Upstream gagal", error);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, ResponseEntity<Flux<DataBuffer>> upstream) {
+        response.setStatusCode(upstream.getStatusCode());
+        HttpHeaders headers = response.getHeaders();
+        upstream.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, values);
+            }
+        });
+        long contentLength = upstream.getHeaders().getContentLength();
+        if (contentLength >= 0) {
+            headers.setContentLength(contentLength);
+        }
+        return response.writeWith(upstream.getBody() != null ? upstream.getBody() : Flux.empty());
+    }
+
+    private static URI withInstance(URI primary, URI instance) {
+        return UriComponentsBuilder.fromUri(primary)
+                .scheme(instance.getScheme())
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private record RouteBudget(double ratio, int burst, HedgeBudget budget) {
+
+        RouteBudget(Config config) {
+            this(config.getBudgetRatio(), config.getBudgetBurst(),
+                    new HedgeBudget(config.getBudgetRatio(), config.getBudgetBurst()));
+        }
+
+        boolean hasParametersOf(Config config) {
+            return ratio == config.getBudgetRatio() && burst == config.getBudgetBurst();
+        }
+    }
+
+    private record Outcome(ResponseEntity<Flux<DataBuffer>> response, boolean hedged) {
+    }
+
+    public static class Config implements HasRouteId {
+
+        // Instance alternatif tujuan hedge; kosong → filter tidak aktif
+        private List<URI> instances = List.of();
+
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(20);
+
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        // Maksimal hedge per request (<= 1.0, jadi beban downstream tidak pernah lebih dari 2x)
+        private double budgetRatio = 0.1;
+
+        private int budgetBurst = 10;
+
+        private String routeId;
+
+        public List<URI> getInstances() {
+            return instances;
+        }
+
+        public Config setInstances(List<URI> instances) {
+            this.instances = instances;
+            return this;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public Config setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public Config setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public Config setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public Config setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        public int getBudgetBurst() {
+            return budgetBurst;
+        }
+
+        public Config setBudgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+            return this;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.takapedia.apigateway.latency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "gateway.latency")
+public record LatencyProperties(
+        @DefaultValue("on-request") ServerTiming serverTiming,
+        @DefaultValue("X-Server-Timing") String serverTimingTrigger
+) {
+    public enum ServerTiming {
+        // Tidak pernah menambahkan header Server-Timing
+        NEVER,
+        // Hanya kalau request membawa header trigger (untuk debugging dari client)
+        ON_REQUEST,
+        // Selalu; hati-hati, membocorkan rincian waktu internal ke client publik
+        ALWAYS
+    }
+}
@@ -0,0 +1,131 @@
+package com.takapedia.apigateway.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+// Histogram latency per (route, fase). Percentile dihitung di dalam proses oleh Micrometer
+// (histogram ber-window), jadi bisa dibaca langsung tanpa backend metrics.
+@Component
+public class LatencyRecorder {
+
+    public static final String JWT = "jwt";
+    public static final String RATE_LIMIT = "ratelimit";
+    public static final String UPSTREAM = "upstream";
+    public static final String TOTAL = "total";
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+    // Percentile dari konfigurasi (hasil parsing double) dibandingkan dengan toleransi, bukan ==
+    private static final double PERCENTILE_TOLERANCE = 1e-9;
+
+    // Yang ditampilkan di endpoint; p90/p95 tetap dihitung untuk dipakai hedging
+    private static final Map<Double, String> REPORTED = Map.of(0.5, "p50", 0.99, "p99", 0.999, "p999");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public LatencyRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String routeId, String phase, long nanos) {
+        timer(routeId, phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(ServerWebExchange exchange, String phase, long nanos) {
+        record(routeId(exchange), phase, nanos);
+        RequestTimings timings = exchange.getAttribute(RequestTimings.ATTRIBUTE);
+        if (timings != null) {
+            timings.add(phase, nanos);
+        }
+    }
+
+    // Untuk komponen yang tidak memegang exchange (mis. RateLimiter): RequestTimings diambil dari Reactor Context
+    public void record(ContextView context, String routeId, String phase, long nanos) {
+        record(routeId, phase, nanos);
+        context.getOrEmpty(RequestTimings.class)
+                .ifPresent(timings -> ((RequestTimings) timings).add(phase, nanos));
+    }
+
+    // Hanya percentile ini yang dihitung histogram; yang lain selalu null dari percentile()
+    public static boolean isTracked(double percentile) {
+        for (double tracked : PERCENTILES) {
+            if (Math.abs(tracked - percentile) < PERCENTILE_TOLERANCE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static double[] trackedPercentiles() {
+        return PERCENTILES.clone();
+    }
+
+    // null kalau belum ada sampel untuk route/fase tersebut
+    public Duration percentile(String routeId, String phase, double percentile) {
+        Timer timer = timers.get(key(routeId, phase));
+        if (timer == null || timer.count() == 0) {
+            return null;
+        }
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (Math.abs(value.percentile() - percentile) < PERCENTILE_TOLERANCE) {
+                return Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return null;
+    }
+
+    // route → fase → {count, p50, p99, p999, max} dalam milidetik
+    public Map<String, Map<String, Map<String, Object>>> summary() {
+        Map<String, Map<String, Map<String, Object>>> routes = new TreeMap<>();
+        timers.values().forEach(timer -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", snapshot.count());
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                String label = REPORTED.get(value.percentile());
+                if (label != null) {
+                    stats.put(label, value.value(TimeUnit.MILLISECONDS));
+                }
+            }
+            stats.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+            routes.computeIfAbsent(timer.getId().getTag("route"), r -> new TreeMap<>())
+                    .put(timer.getId().getTag("phase"), stats);
+        });
+        return routes;
+    }
+
+    public static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Timer timer(String routeId, String phase) {
+        return timers.computeIfAbsent(key(routeId, phase), k -> Timer.builder("gateway.latency")
+                .description("Latency gateway per route dan fase")
+                .tag("route", routeId)
+                .tag("phase", phase)
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(2)
+                .register(meterRegistry));
+    }
+
+    private static String key(String routeId, String phase) {
+        return routeId + '\u0000' + phase;
+    }
+}
@@ -0,0 +1,55 @@
+package com.takapedia.apigateway.latency;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Filter paling awal: mulai stopwatch request, catat total, dan tulis Server-Timing sebelum header dikirim
+@Component
+public class RequestTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final LatencyRecorder recorder;
+    private final LatencyProperties properties;
+
+    public RequestTimingFilter(LatencyRecorder recorder, LatencyProperties properties) {
+        this.recorder = recorder;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        exchange.getAttributes().put(RequestTimings.ATTRIBUTE, timings);
+
+        if (wantsServerTiming(exchange)) {
+            exchange.getResponse().beforeCommit(() -> {
+                exchange.getResponse().getHeaders().set(SERVER_TIMING_HEADER,
+                        timings.serverTiming(System.nanoTime() - timings.startNanos()));
+                return Mono.empty();
+            });
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> recorder.record(LatencyRecorder.routeId(exchange), LatencyRecorder.TOTAL,
+                        System.nanoTime() - timings.startNanos()))
+                .contextWrite(context -> context.put(RequestTimings.class, timings));
+    }
+
+    private boolean wantsServerTiming(ServerWebExchange exchange) {
+        return switch (properties.serverTiming()) {
+            case NEVER -> false;
+            case ALWAYS -> true;
+            case ON_REQUEST -> exchange.getRequest().getHeaders().containsHeader(properties.serverTimingTrigger());
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.takapedia.apigateway.latency;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Durasi tiap fase untuk satu request; dibawa lewat exchange attribute dan Reactor Context
+public final class RequestTimings {
+
+    public static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private final long startNanos;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public synchronized void add(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    // Format RFC Server-Timing: jwt;dur=0.412, ratelimit;dur=0.008, upstream;dur=35.1, total;dur=36.2
+    public synchronized String serverTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder();
+        phases.forEach((phase, nanos) -> append(header, phase, nanos));
+        append(header, LatencyRecorder.TOTAL, totalNanos);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String phase, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(phase).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
@@ -0,0 +1,36 @@
+package com.takapedia.apigateway.latency;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Tepat sebelum NettyRoutingFilter: mengukur waktu sampai header response downstream diterima
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final LatencyRecorder recorder;
+
+    public UpstreamTimingFilter(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal != SignalType.CANCEL) {
+                        recorder.record(exchange, LatencyRecorder.UPSTREAM, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.takapedia.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setResponseStatus;
+
+// Seperti RequestRateLimiter, tapi jumlah token per request dihitung dari kompleksitas query-nya
+@Component
+public class CostWeightedRateLimiterGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CostWeightedRateLimiterGatewayFilterFactory.Config> {
+
+    private static final String EMPTY_KEY = "____EMPTY_KEY__";
+
+    private final HybridRateLimiter rateLimiter;
+    private final KeyResolver defaultKeyResolver;
+    private final RequestCostEstimator defaultCostEstimator;
+
+    public CostWeightedRateLimiterGatewayFilterFactory(HybridRateLimiter rateLimiter,
+                                                       KeyResolver defaultKeyResolver,
+                                                       RequestCostEstimator defaultCostEstimator) {
+        super(Config.class);
+        this.rateLimiter = rateLimiter;
+        this.defaultKeyResolver = defaultKeyResolver;
+        this.defaultCostEstimator = defaultCostEstimator;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        KeyResolver keyResolver = config.getKeyResolver() != null ? config.getKeyResolver() : defaultKeyResolver;
+        RequestCostEstimator costEstimator = config.getCostEstimator() != null
+                ? config.getCostEstimator()
+                : defaultCostEstimator;
+
+        return (exchange, chain) -> keyResolver.resolve(exchange).defaultIfEmpty(EMPTY_KEY).flatMap(key -> {
+            if (EMPTY_KEY.equals(key)) {
+                setResponseStatus(exchange, HttpStatus.FORBIDDEN);
+                return exchange.getResponse().setComplete();
+            }
+
+            int tokens = costEstimator.estimate(exchange);
+            return rateLimiter.isAllowed(config.getRouteId(), key, tokens).flatMap(response -> {
+                response.getHeaders().forEach((name, value) ->
+                        exchange.getResponse().getHeaders().add(name, value));
+
+                if (response.isAllowed()) {
+                    return chain.filter(exchange);
+                }
+
+                setResponseStatus(exchange, config.getStatusCode());
+                return exchange.getResponse().setComplete();
+            });
+        });
+    }
+
+    public static class Config implements HasRouteId {
+
+        private KeyResolver keyResolver;
+
+        private RequestCostEstimator costEstimator;
+
+        private HttpStatus statusCode = HttpStatus.TOO_MANY_REQUESTS;
+
+        private String routeId;
+
+        public KeyResolver getKeyResolver() {
+            return keyResolver;
+        }
+
+        public Config setKeyResolver(KeyResolver keyResolver) {
+            this.keyResolver = keyResolver;
+            return this;
+        }
+
+        public RequestCostEstimator getCostEstimator() {
+            return costEstimator;
+        }
+
+        public Config setCostEstimator(RequestCostEstimator costEstimator) {
+            this.costEstimator = costEstimator;
+            return this;
+        }
+
+        public HttpStatus getStatusCode() {
+            return statusCode;
+        }
+
+        public Config setStatusCode(HttpStatus statusCode) {
+            this.statusCode = statusCode;
+            return this;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.takapedia.apigateway.ratelimit;
+
+import com.takapedia.apigateway.latency.LatencyRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Keputusan allow/deny diambil di memori; Redis hanya dipakai untuk rekonsiliasi async
+@Primary
+@Component
+public class HybridRateLimiter extends AbstractRateLimiter<HybridRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final RedisQuotaReconciler reconciler;
+    private final LatencyRecorder latencyRecorder;
+    private final Duration syncInterval;
+
+    private Disposable syncTask;
+
+    public HybridRateLimiter(ConfigurationService configurationService,
+                             RedisQuotaReconciler reconciler,
+                             LatencyRecorder latencyRecorder,
+                             @Value("${gateway.rate-limiter.sync-interval:200ms}") Duration syncInterval) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.reconciler = reconciler;
+        this.latencyRecorder = latencyRecorder;
+        this.syncInterval = syncInterval;
+    }
+
+    @PostConstruct
+    void startSync() {
+        syncTask = Flux.interval(syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reconciler.reconcile(buckets, System.nanoTime()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stopSync() {
+        if (syncTask != null) {
+            syncTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+        return timed(routeId, () -> tryAcquire(routeId, id, config, config.getRequestedTokens()));
+    }
+
+    // Dipakai CostWeightedRateLimiter: jumlah token ditentukan per request, bukan per route
+    public Mono<Response> isAllowed(String routeId, String id, int requestedTokens) {
+        Config config = loadConfiguration(routeId);
+        // Request yang lebih mahal dari burst tetap bisa lewat, tapi menghabiskan seluruh bucket
+        int tokens = (int) Math.max(1, Math.min(requestedTokens, config.getBurstCapacity()));
+        return timed(routeId, () -> tryAcquire(routeId, id, config, tokens));
+    }
+
+    // RateLimiter tidak memegang exchange, jadi waktu fase dicatat lewat Reactor Context
+    private Mono<Response> timed(String routeId, Supplier<Response> decision) {
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            Response response = decision.get();
+            latencyRecorder.record(context, routeId, LatencyRecorder.RATE_LIMIT, System.nanoTime() - start);
+            return Mono.just(response);
+        });
+    }
+
+    Response tryAcquire(String routeId, String id, Config config, int requestedTokens) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(routeId + ":" + id,
+                k -> new TokenBucket(config.getBurstCapacity(), now));
+        long remaining = bucket.tryConsume(config.getReplenishRate(), config.getBurstCapacity(),
+                requestedTokens, now);
+
+        boolean allowed = remaining != TokenBucket.DENIED;
+        return new Response(allowed, headers(config, allowed ? remaining : 0, requestedTokens));
+    }
+
+    Config loadConfiguration(String routeId) {
+        Config routeConfig = getConfig().get(routeId);
+        if (routeConfig == null) {
+            routeConfig = getConfig().get(RouteDefinitionRouteLocator.DEFAULT_FILTERS);
+        }
+        if (routeConfig == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return routeConfig;
+    }
+
+    private Map<String, String> headers(Config config, long remaining, int requestedTokens) {
+        return Map.of(
+                REMAINING_HEADER, String.valueOf(remaining),
+                REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                REQUESTED_TOKENS_HEADER, String.valueOf(requestedTokens)
+        );
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(0)
+        private long burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public long getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(long burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
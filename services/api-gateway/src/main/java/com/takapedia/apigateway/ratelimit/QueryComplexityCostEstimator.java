@@ -0,0 +1,66 @@
+package com.takapedia.apigateway.ratelimit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+
+@Component
+public class QueryComplexityCostEstimator implements RequestCostEstimator {
+
+    static final String ANONYMOUS_ROLE = "ANONYMOUS";
+
+    // Default yang sama dengan ProductSearchController
+    private static final int DEFAULT_PAGE = 0;
+    private static final int DEFAULT_SIZE = 10;
+
+    private final RequestCostProperties properties;
+
+    public QueryComplexityCostEstimator(RequestCostProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public int estimate(ServerWebExchange exchange) {
+        double cost = properties.base();
+        // Hanya endpoint search/list yang punya paging, sort, dan agregasi
+        if (properties.searchPaths().contains(exchange.getRequest().getPath().value())) {
+            MultiValueMap<String, String> params = exchange.getRequest().getQueryParams();
+            int size = intParam(params, "size", DEFAULT_SIZE);
+            int page = intParam(params, "page", DEFAULT_PAGE);
+
+            cost += (double) size / properties.sizeUnit();
+            // page dalam = ES harus skip page * size hit dulu
+            cost += (double) page * size / properties.depthUnit();
+            if (hasText(params.getFirst("sort"))) {
+                cost += properties.sort();
+            }
+            cost += properties.aggregations();
+        }
+
+        cost *= properties.multiplierFor(role(exchange));
+        return (int) Math.max(1, Math.min(properties.maxTokens(), Math.ceil(cost)));
+    }
+
+    private static String role(ServerWebExchange exchange) {
+        // X-User-Role sudah diisi ulang oleh JwtAuthenticationFilter, bukan dari client
+        String role = exchange.getRequest().getHeaders().getFirst("X-User-Role");
+        return hasText(role) ? role : ANONYMOUS_ROLE;
+    }
+
+    private static int intParam(MultiValueMap<String, String> params, String name, int defaultValue) {
+        String value = params.getFirst(name);
+        if (!hasText(value)) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            // Nilai ngawur ditolak downstream dengan 400, cukup pakai default
+            return defaultValue;
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,141 @@
+package com.takapedia.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+// Menyamakan pemakaian token antar node gateway lewat satu round trip Redis per interval
+@Component
+public class RedisQuotaReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisQuotaReconciler.class);
+
+    // KEYS = counter per bucket, ARGV[1] = ttl detik, ARGV[2..] = token terpakai lokal
+    private static final String SCRIPT = """
+            local ttl = tonumber(ARGV[1])
+            local totals = {}
+            for i, key in ipairs(KEYS) do
+              totals[i] = redis.call('incrby', key, tonumber(ARGV[i + 1]))
+              redis.call('expire', key, ttl)
+            end
+            return totals
+            """;
+
+    // Satu hash tag untuk semua counter: script menyentuh banyak key sekaligus, dan di Redis Cluster
+    // semua KEYS satu EVAL harus berada di slot yang sama (kalau tidak → CROSSSLOT)
+    static final String KEY_PREFIX = "{hybrid_rate_limiter}.consumed.";
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> RECONCILE_SCRIPT = (RedisScript) RedisScript.of(SCRIPT, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Duration redisTimeout;
+    private final Duration idleTimeout;
+    private final Counter failures;
+
+    private volatile boolean degraded;
+
+    public RedisQuotaReconciler(ReactiveStringRedisTemplate redisTemplate,
+                                @Value("${gateway.rate-limiter.redis-timeout:100ms}") Duration redisTimeout,
+                                @Value("${gateway.rate-limiter.idle-timeout:60s}") Duration idleTimeout,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisTimeout = redisTimeout;
+        this.idleTimeout = idleTimeout;
+        this.failures = meterRegistry.counter("gateway.ratelimit.reconcile.failures");
+        meterRegistry.gauge("gateway.ratelimit.degraded", this, r -> r.degraded ? 1 : 0);
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    Mono<Void> reconcile(Map<String, TokenBucket> buckets, long nowNanos) {
+        List<String> keys = new ArrayList<>();
+        List<TokenBucket> synced = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+
+        buckets.forEach((key, bucket) -> {
+            long delta = bucket.takeUnsynced();
+            boolean idle = nowNanos - bucket.lastAccessNanos() > idleTimeout.toNanos();
+            if (idle && delta == 0) {
+                buckets.remove(key, bucket);
+                return;
+            }
+            keys.add(KEY_PREFIX + key);
+            synced.add(bucket);
+            deltas.add(delta);
+        });
+
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<String> args = new ArrayList<>(deltas.size() + 1);
+        args.add(String.valueOf(Math.max(1, idleTimeout.toSeconds())));
+        deltas.forEach(d -> args.add(String.valueOf(d)));
+
+        return redisTemplate.execute(RECONCILE_SCRIPT, keys, args)
+                .next()
+                .timeout(redisTimeout)
+                .doOnNext(totals -> apply(synced, deltas, totals))
+                .doOnSuccess(totals -> markHealthy())
+                .onErrorResume(e -> {
+                    // Timeout: script mungkin sudah jalan di Redis, kirim ulang bisa menghitung dua kali.
+                    // Error lain: script pasti tidak jalan, delta dikembalikan supaya tidak hilang.
+                    if (!(e instanceof TimeoutException)) {
+                        restore(synced, deltas);
+                    }
+                    // Redis lambat/mati → bucket lokal tetap jalan sendiri (mode degraded)
+                    markDegraded(e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static void restore(List<TokenBucket> synced, List<Long> deltas) {
+        for (int i = 0; i < synced.size(); i++) {
+            synced.get(i).restoreUnsynced(deltas.get(i));
+        }
+    }
+
+    private void apply(List<TokenBucket> synced, List<Long> deltas, List<Long> totals) {
+        for (int i = 0; i < synced.size() && i < totals.size(); i++) {
+            TokenBucket bucket = synced.get(i);
+            long total = totals.get(i);
+            long previous = bucket.lastSeenGlobal();
+            // Sinkron pertama atau counter Redis sudah expire → belum ada selisih yang bisa dipercaya
+            if (previous >= 0 && total >= previous + deltas.get(i)) {
+                bucket.drain(total - previous - deltas.get(i));
+            }
+            bucket.lastSeenGlobal(total);
+        }
+    }
+
+    private void markHealthy() {
+        if (degraded) {
+            log.info("Redis kembali tersedia, rate limiter kembali sinkron antar node");
+        }
+        degraded = false;
+    }
+
+    private void markDegraded(Throwable e) {
+        failures.increment();
+        if (!degraded) {
+            log.warn("Sinkronisasi rate limiter ke Redis gagal, pakai kuota lokal saja: {}", e.toString());
+        }
+        degraded = true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.takapedia.apigateway.ratelimit;
+
+import org.springframework.web.server.ServerWebExchange;
+
+// Berapa token yang dibebankan ke satu request; implementasi lain bisa dipasang per route
+@FunctionalInterface
+public interface RequestCostEstimator {
+
+    int estimate(ServerWebExchange exchange);
+}
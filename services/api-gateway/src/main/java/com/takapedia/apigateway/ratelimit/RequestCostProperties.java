@@ -0,0 +1,26 @@
+package com.takapedia.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.request-cost")
+public record RequestCostProperties(
+        @DefaultValue("1") double base,
+        @DefaultValue("20") int sizeUnit,
+        @DefaultValue("100") int depthUnit,
+        @DefaultValue("1") double sort,
+        @DefaultValue("3") double aggregations,
+        @DefaultValue({"/api/v1/products", "/api/v1/products/search"}) List<String> searchPaths,
+        @DefaultValue("20") int maxTokens,
+        Map<String, Double> roleMultipliers
+) {
+    public double multiplierFor(String role) {
+        if (roleMultipliers == null) {
+            return 1.0;
+        }
+        return roleMultipliers.getOrDefault(role, 1.0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.takapedia.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token bucket lokal tanpa lock: state immutable di-swap pakai CAS
+final class TokenBucket {
+
+    static final long DENIED = -1;
+
+    private record State(double tokens, long refilledAtNanos) {}
+
+    private final AtomicReference<State> state;
+
+    // Token yang dipakai node ini sejak sinkronisasi terakhir ke Redis
+    private final LongAdder unsynced = new LongAdder();
+
+    // Total global terakhir yang terlihat di Redis, hanya disentuh thread reconciler
+    private long lastSeenGlobal = -1;
+
+    private volatile long lastAccessNanos;
+
+    TokenBucket(long burstCapacity, long nowNanos) {
+        this.state = new AtomicReference<>(new State(burstCapacity, nowNanos));
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * @return sisa token setelah konsumsi, atau {@link #DENIED} kalau token tidak cukup
+     */
+    long tryConsume(int replenishRate, long burstCapacity, int requested, long nowNanos) {
+        lastAccessNanos = nowNanos;
+        while (true) {
+            State current = state.get();
+            double available = refill(current, replenishRate, burstCapacity, nowNanos);
+            if (available < requested) {
+                return DENIED;
+            }
+            State next = new State(available - requested, Math.max(nowNanos, current.refilledAtNanos()));
+            if (state.compareAndSet(current, next)) {
+                unsynced.add(requested);
+                return (long) next.tokens();
+            }
+        }
+    }
+
+    // Kurangi token yang sudah dipakai node lain untuk key yang sama
+    void drain(long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        while (true) {
+            State current = state.get();
+            State next = new State(Math.max(0, current.tokens() - tokens), current.refilledAtNanos());
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    long takeUnsynced() {
+        return unsynced.sumThenReset();
+    }
+
+    // Delta yang gagal terkirim dikembalikan supaya ikut di sinkronisasi berikutnya
+    void restoreUnsynced(long tokens) {
+        unsynced.add(tokens);
+    }
+
+    long lastSeenGlobal() {
+        return lastSeenGlobal;
+    }
+
+    void lastSeenGlobal(long total) {
+        this.lastSeenGlobal = total;
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    private static double refill(State current, int replenishRate, long burstCapacity, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.refilledAtNanos());
+        double refilled = current.tokens() + elapsed * (replenishRate / 1_000_000_000d);
+        return Math.min(burstCapacity, refilled);
+    }
+}
@@ -0,0 +1,97 @@
+package com.takapedia.apigateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+// Endpoint yang isinya cuma klaim token (mis. /me) dijawab langsung dari VerifiedToken hasil
+// JwtAuthenticationFilter: tanpa hop ke downstream dan tanpa verifikasi RSA kedua di sana.
+// Field response dipetakan deklaratif di route: nama field → klaim (sub, role, jti, exp).
+@Component
+public class EdgeAnswerGatewayFilterFactory extends AbstractGatewayFilterFactory<EdgeAnswerGatewayFilterFactory.Config> {
+
+    // Setelah JwtAuthenticationFilter (-1) yang mengisi atribut VerifiedToken
+    public static final int ORDER = 0;
+
+    private final ObjectMapper objectMapper;
+    private final Counter answered;
+    private final Counter unauthorized;
+
+    public EdgeAnswerGatewayFilterFactory(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.objectMapper = objectMapper;
+        this.answered = meterRegistry.counter("gateway.edge_answer", "result", "answered");
+        this.unauthorized = meterRegistry.counter("gateway.edge_answer", "result", "unauthorized");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Urutan field mengikuti konfigurasi route
+        Map<String, String> fields = new LinkedHashMap<>(config.getFields());
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("EdgeAnswer butuh minimal satu field");
+        }
+        fields.values().forEach(claim -> {
+            if (!VerifiedToken.CLAIMS.contains(claim)) {
+                throw new IllegalArgumentException("Klaim tidak dikenal: " + claim + ", pilihan: " + VerifiedToken.CLAIMS);
+            }
+        });
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            // Response ditulis di sini, routing ke downstream tidak perlu dijalankan
+            setAlreadyRouted(exchange);
+            ServerHttpResponse response = exchange.getResponse();
+            HttpHeaders headers = response.getHeaders();
+            // Isi response tergantung token: jangan sampai di-cache shared cache
+            headers.set(HttpHeaders.CACHE_CONTROL, "private, no-store");
+            headers.set(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+
+            VerifiedToken verified = exchange.getAttribute(JwtAuthenticationFilter.VERIFIED_TOKEN_ATTR);
+            if (verified == null) {
+                // Tanpa token, token invalid, atau token dicabut
+                unauthorized.increment();
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                headers.set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                return response.setComplete();
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            fields.forEach((field, claim) -> body.put(field, verified.claim(claim)));
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+
+            answered.increment();
+            response.setStatusCode(HttpStatus.OK);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(bytes.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        }, ORDER);
+    }
+
+    public static class Config {
+
+        private Map<String, String> fields = new LinkedHashMap<>();
+
+        public Map<String, String> getFields() {
+            return fields;
+        }
+
+        public Config setFields(Map<String, String> fields) {
+            this.fields = fields;
+            return this;
+        }
+    }
+}
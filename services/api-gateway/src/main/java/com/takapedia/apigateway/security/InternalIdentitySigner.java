@@ -0,0 +1,80 @@
+package com.takapedia.apigateway.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Identitas hasil verifikasi JWT di gateway diteruskan ke downstream sebagai header ber-HMAC,
+// jadi product/order-service cukup cek HMAC, tidak verifikasi RS256 untuk token yang sama lagi
+@Component
+public class InternalIdentitySigner {
+
+    public static final String HEADER = "X-Internal-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public InternalIdentitySigner(@Value("${internal-auth.enabled:false}") boolean enabled,
+                                  @Value("${internal-auth.secret:}") String secret,
+                                  @Value("${internal-auth.ttl:30s}") Duration ttl) {
+        this(enabled, secret, ttl, Clock.systemUTC());
+    }
+
+    InternalIdentitySigner(boolean enabled, String secret, Duration ttl, Clock clock) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (enabled && secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("internal-auth.secret minimal " + MIN_SECRET_BYTES + " byte");
+        }
+        this.enabled = enabled;
+        this.key = enabled ? new SecretKeySpec(secretBytes, ALGORITHM) : null;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // null → tidak ada header; downstream tetap bisa verifikasi lewat Authorization
+    public String sign(VerifiedToken verified) {
+        if (!enabled || verified.subject() == null || verified.role() == null
+                || verified.subject().indexOf('|') >= 0 || verified.role().indexOf('|') >= 0) {
+            return null;
+        }
+        // Header tidak boleh hidup lebih lama dari JWT asalnya
+        Instant expiresAt = clock.instant().plus(ttl);
+        if (verified.expiresAt() != null && verified.expiresAt().isBefore(expiresAt)) {
+            expiresAt = verified.expiresAt();
+        }
+
+        byte[] payload = (verified.subject() + "|" + verified.role() + "|" + expiresAt.getEpochSecond())
+                .getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(hmac(payload));
+    }
+
+    private byte[] hmac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 tidak tersedia", e);
+        }
+    }
+}
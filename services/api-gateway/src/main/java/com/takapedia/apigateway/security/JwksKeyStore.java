@@ -0,0 +1,177 @@
+package com.takapedia.apigateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Key publik auth-service, diindeks per kid dan di-refresh di background
+@Component
+public class JwksKeyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeyStore.class);
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final Duration fetchTimeout;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+    private final Counter refreshNotModified;
+
+    // Snapshot immutable; kalau auth-service mati, snapshot terakhir tetap dipakai
+    private volatile Map<String, JWK> keys = Map.of();
+    private volatile long lastFetchNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+    // ETag dari JWKS terakhir; refresh berikutnya cukup revalidasi (304 tanpa body, tanpa parsing ulang)
+    private volatile String etag;
+
+    private final AtomicReference<Mono<Map<String, JWK>>> inFlight = new AtomicReference<>();
+
+    private Disposable refreshTask;
+
+    public JwksKeyStore(WebClient.Builder webClientBuilder,
+                        @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                        @Value("${gateway.jwks.refresh-interval:5m}") Duration refreshInterval,
+                        @Value("${gateway.jwks.min-refresh-interval:30s}") Duration minRefreshInterval,
+                        @Value("${gateway.jwks.fetch-timeout:2s}") Duration fetchTimeout,
+                        MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.jwkSetUri = jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.fetchTimeout = fetchTimeout;
+        this.refreshSuccess = meterRegistry.counter("gateway.jwks.refresh", "result", "success");
+        this.refreshFailure = meterRegistry.counter("gateway.jwks.refresh", "result", "failure");
+        this.refreshNotModified = meterRegistry.counter("gateway.jwks.refresh", "result", "not_modified");
+    }
+
+    @PostConstruct
+    void start() {
+        // Tick pertama langsung jalan → key sudah hangat sebelum request pertama datang
+        refreshTask = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    public Flux<JWK> select(SignedJWT jwt) {
+        String kid = jwt.getHeader().getKeyID();
+        Map<String, JWK> current = keys;
+        if (kid == null) {
+            return Flux.fromIterable(current.values());
+        }
+
+        JWK key = current.get(kid);
+        if (key != null) {
+            return Flux.just(key);
+        }
+
+        // kid belum dikenal (mis. baru rotasi) → ikut fetch yang sedang jalan, atau mulai satu fetch.
+        // Dibatasi min-refresh-interval supaya kid palsu tidak bisa membanjiri auth-service.
+        Mono<Map<String, JWK>> pending = inFlight.get();
+        if (pending == null && System.nanoTime() - lastFetchNanos < minRefreshInterval.toNanos()) {
+            return Flux.empty();
+        }
+        return (pending != null ? pending : refresh()).flatMapMany(m -> Mono.justOrEmpty(m.get(kid)));
+    }
+
+    Map<String, JWK> keys() {
+        return keys;
+    }
+
+    Mono<Map<String, JWK>> refresh() {
+        while (true) {
+            Mono<Map<String, JWK>> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            // inFlight dilepas sebelum hasil dipancarkan, supaya pemanggil berikutnya
+            // tidak menerima hasil fetch yang sudah selesai
+            Mono<Map<String, JWK>> fetch = fetch()
+                    .doOnNext(fetched -> inFlight.set(null))
+                    .doFinally(signal -> inFlight.set(null))
+                    .cache();
+            if (inFlight.compareAndSet(null, fetch)) {
+                // Subscribe sendiri supaya fetch selesai walau pemanggil pertama batal
+                fetch.subscribe();
+                return fetch;
+            }
+        }
+    }
+
+    private Mono<Map<String, JWK>> fetch() {
+        String knownEtag = etag;
+        return webClient.get()
+                .uri(jwkSetUri)
+                .headers(headers -> {
+                    if (knownEtag != null && !keys.isEmpty()) {
+                        headers.setIfNoneMatch(knownEtag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        refreshNotModified.increment();
+                        return Mono.just(keys);
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+                    String responseEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(String.class)
+                            .map(JwksKeyStore::index)
+                            .doOnNext(fetched -> {
+                                keys = fetched;
+                                etag = responseEtag;
+                                refreshSuccess.increment();
+                            });
+                })
+                .timeout(fetchTimeout)
+                .doOnNext(fetched -> lastFetchNanos = System.nanoTime())
+                .onErrorResume(e -> {
+                    refreshFailure.increment();
+                    log.warn("Gagal mengambil JWKS dari {}, pakai {} key terakhir: {}",
+                            jwkSetUri, keys.size(), e.toString());
+                    lastFetchNanos = System.nanoTime();
+                    return Mono.just(keys);
+                });
+    }
+
+    private static Map<String, JWK> index(String body) {
+        try {
+            Map<String, JWK> indexed = new LinkedHashMap<>();
+            for (JWK jwk : JWKSet.parse(body).getKeys()) {
+                if (jwk.getKeyID() != null) {
+                    indexed.put(jwk.getKeyID(), jwk);
+                }
+            }
+            return Map.copyOf(indexed);
+        } catch (java.text.ParseException e) {
+            throw new IllegalStateException("JWKS tidak valid", e);
+        }
+    }
+}
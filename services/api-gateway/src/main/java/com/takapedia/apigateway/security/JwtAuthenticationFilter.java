@@ -1,8 +1,10 @@
 package com.takapedia.apigateway.security;
 
+import com.takapedia.apigateway.latency.LatencyRecorder;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.stereotype.Component;
@@ -12,10 +14,23 @@ import reactor.core.publisher.Mono;
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
+    // Token yang lolos verifikasi (dan tidak dicabut), untuk filter route sesudahnya, mis. EdgeAnswer
+    public static final String VERIFIED_TOKEN_ATTR = JwtAuthenticationFilter.class.getName() + ".verifiedToken";
+
     private final ReactiveJwtDecoder jwtDecoder;
+    private final VerifiedTokenCache tokenCache;
+    private final LatencyRecorder latencyRecorder;
+    private final InternalIdentitySigner identitySigner;
+    private final RevocationList revocationList;
 
-    public JwtAuthenticationFilter(ReactiveJwtDecoder jwtDecoder) {
+    public JwtAuthenticationFilter(ReactiveJwtDecoder jwtDecoder, VerifiedTokenCache tokenCache,
+                                   LatencyRecorder latencyRecorder, InternalIdentitySigner identitySigner,
+                                   RevocationList revocationList) {
         this.jwtDecoder = jwtDecoder;
+        this.tokenCache = tokenCache;
+        this.latencyRecorder = latencyRecorder;
+        this.identitySigner = identitySigner;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -28,6 +43,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
                 .headers(h -> {
                     h.remove("X-User-Id");
                     h.remove("X-User-Role");
+                    h.remove(InternalIdentitySigner.HEADER);
                 })
                 .build();
 
@@ -37,23 +53,55 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         }
 
         String token = authHeader.substring(7);
+        long start = System.nanoTime();
+
+        // Token yang sudah pernah lolos verifikasi tidak perlu cek signature RS256 lagi
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            latencyRecorder.record(exchange, LatencyRecorder.JWT, System.nanoTime() - start);
+            return chain.filter(withIdentity(exchange, stripped, cached));
+        }
 
         // Decode via JWKS (reactive). Kalau invalid, teruskan tanpa identitas (Mazhab 2).
         return jwtDecoder.decode(token)
-                .flatMap(jwt -> {
-                    ServerHttpRequest mutated = stripped.mutate()
-                            .headers(h -> {
-                                h.set("X-User-Id", jwt.getSubject());
-                                h.set("X-User-Role", jwt.getClaimAsString("role"));
-                            })
-                            .build();
-                    return chain.filter(exchange.mutate().request(mutated).build());
+                .map(VerifiedToken::from)
+                .doOnNext(verified -> tokenCache.put(token, verified))
+                .doOnEach(signal -> {
+                    if (signal.isOnNext() || signal.isOnError()) {
+                        latencyRecorder.record(exchange, LatencyRecorder.JWT, System.nanoTime() - start);
+                    }
                 })
+                .flatMap(verified -> chain.filter(withIdentity(exchange, stripped, verified)))
                 .onErrorResume(e ->
                         // Token invalid → teruskan tanpa identitas, tidak menolak
                         chain.filter(exchange.mutate().request(stripped).build()));
     }
 
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, ServerHttpRequest stripped,
+                                           VerifiedToken verified) {
+        // Token dicabut (logout/bocor) diteruskan tanpa identitas dan tanpa bearer token: downstream
+        // memverifikasi JWT sendiri (oauth2ResourceServer) dan tidak tahu soal pencabutan.
+        // Dicek juga untuk token dari cache, karena pencabutan bisa datang setelah token di-cache.
+        if (revocationList.isRevoked(verified.tokenId())) {
+            ServerHttpRequest withoutToken = stripped.mutate()
+                    .headers(h -> h.remove(HttpHeaders.AUTHORIZATION))
+                    .build();
+            return exchange.mutate().request(withoutToken).build();
+        }
+        exchange.getAttributes().put(VERIFIED_TOKEN_ATTR, verified);
+        ServerHttpRequest mutated = stripped.mutate()
+                .headers(h -> {
+                    h.set("X-User-Id", verified.subject());
+                    h.set("X-User-Role", verified.role());
+                    String internalIdentity = identitySigner.sign(verified);
+                    if (internalIdentity != null) {
+                        h.set(InternalIdentitySigner.HEADER, internalIdentity);
+                    }
+                })
+                .build();
+        return exchange.mutate().request(mutated).build();
+    }
+
     @Override
     public int getOrder() {
         return -1;
@@ -0,0 +1,43 @@
+package com.takapedia.apigateway.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+import java.util.function.Function;
+
+@Configuration
+public class JwtDecoderConfig {
+
+    // Semua algoritma yang bisa dihasilkan SigningKeyRing.algorithmOf di auth-service:
+    // RSA (RS*/PS* sesuai alg di JWK), EC per curve (P-256/384/521), dan EdDSA
+    static final Set<JWSAlgorithm> ALGORITHMS = Set.of(
+            JWSAlgorithm.RS256, JWSAlgorithm.RS384, JWSAlgorithm.RS512,
+            JWSAlgorithm.PS256, JWSAlgorithm.PS384, JWSAlgorithm.PS512,
+            JWSAlgorithm.ES256, JWSAlgorithm.ES384, JWSAlgorithm.ES512,
+            JWSAlgorithm.EdDSA);
+
+    // Ganti decoder bawaan (fetch JWKS lazy per cache miss) dengan JwksKeyStore
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(JwksKeyStore keyStore) {
+        return decoder(keyStore::select);
+    }
+
+    static ReactiveJwtDecoder decoder(Function<SignedJWT, Flux<JWK>> keySource) {
+        return NimbusReactiveJwtDecoder.withJwkSource(keySource)
+                .jwtProcessorCustomizer(processor -> {
+                    // Kunci hasil keySource ada di JWKSecurityContext; selector bawaan hanya mengenal RSA/EC
+                    processor.setJWSKeySelector(new MultiAlgorithmKeySelector<>(ALGORITHMS,
+                            (selector, context) -> selector.select(new JWKSet(context.getKeys()))));
+                    processor.setJWSVerifierFactory(new MultiAlgorithmVerifierFactory());
+                })
+                .build();
+    }
+}
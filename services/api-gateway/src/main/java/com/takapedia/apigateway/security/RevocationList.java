@@ -0,0 +1,194 @@
+package com.takapedia.apigateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Salinan lokal daftar jti yang dicabut di auth-service. Per request hanya Bloom filter yang disentuh;
+// set exact baru dicek kalau filter bilang "mungkin" (token yang benar-benar dicabut atau false positive).
+// Feed ditarik inkremental (after=cursor); sesekali full sync untuk membuang entry kedaluwarsa
+// dan menutup celah seq yang commit tidak berurutan.
+@Component
+public class RevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationList.class);
+
+    private final WebClient webClient;
+    private final String feedUri;
+    private final Duration refreshInterval;
+    private final Duration fullSyncInterval;
+    private final Duration fetchTimeout;
+    private final int pageSize;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+
+    // Snapshot immutable yang diganti utuh; kalau auth-service mati, snapshot terakhir tetap dipakai
+    private volatile Snapshot snapshot;
+    private volatile long lastFullSyncNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    private Disposable refreshTask;
+
+    public RevocationList(WebClient.Builder webClientBuilder,
+                          @Value("${gateway.revocation.url:${services.auth.url}/internal/revocations}") String feedUri,
+                          @Value("${gateway.revocation.refresh-interval:5s}") Duration refreshInterval,
+                          @Value("${gateway.revocation.full-sync-interval:5m}") Duration fullSyncInterval,
+                          @Value("${gateway.revocation.fetch-timeout:2s}") Duration fetchTimeout,
+                          @Value("${gateway.revocation.page-size:1000}") int pageSize,
+                          @Value("${gateway.revocation.expected-insertions:100000}") int expectedInsertions,
+                          @Value("${gateway.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                          MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.feedUri = feedUri;
+        this.refreshInterval = refreshInterval;
+        this.fullSyncInterval = fullSyncInterval;
+        this.fetchTimeout = fetchTimeout;
+        this.pageSize = pageSize;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshot = new Snapshot(BloomFilter.create(expectedInsertions, falsePositiveRate), expectedInsertions,
+                Map.of(), 0);
+
+        this.revokedHits = meterRegistry.counter("gateway.revocation.checks", "result", "revoked");
+        this.falsePositives = meterRegistry.counter("gateway.revocation.checks", "result", "false_positive");
+        this.refreshSuccess = meterRegistry.counter("gateway.revocation.refresh", "result", "success");
+        this.refreshFailure = meterRegistry.counter("gateway.revocation.refresh", "result", "failure");
+        Gauge.builder("gateway.revocation.size", this, list -> list.snapshot.revoked().size())
+                .description("Jumlah jti dicabut yang belum kedaluwarsa")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        refreshTask = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (!current.bloom().mightContain(jti)) {
+            return false;
+        }
+        if (current.revoked().containsKey(jti)) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    Mono<Void> refresh() {
+        boolean full = System.nanoTime() - lastFullSyncNanos >= fullSyncInterval.toNanos();
+        long after = full ? 0 : snapshot.cursor();
+        return fetchPage(after)
+                // Halaman penuh → masih ada sisa, lanjut dari cursor halaman itu
+                .expand(page -> page.revoked().size() < pageSize ? Mono.empty() : fetchPage(page.cursor()))
+                .collectList()
+                .timeout(fetchTimeout.multipliedBy(4))
+                .doOnNext(pages -> {
+                    apply(pages, full);
+                    if (full) {
+                        lastFullSyncNanos = System.nanoTime();
+                    }
+                    refreshSuccess.increment();
+                })
+                .onErrorResume(e -> {
+                    refreshFailure.increment();
+                    log.warn("Gagal mengambil revocation list dari {}, pakai {} entry terakhir: {}",
+                            feedUri, snapshot.revoked().size(), e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Page> fetchPage(long after) {
+        return webClient.get()
+                .uri(UriComponentsBuilder.fromUriString(feedUri)
+                        .queryParam("after", after)
+                        .queryParam("limit", pageSize)
+                        .build(true)
+                        .toUri())
+                .retrieve()
+                .bodyToMono(Page.class)
+                .timeout(fetchTimeout);
+    }
+
+    private void apply(List<Page> pages, boolean full) {
+        Snapshot current = snapshot;
+        Instant now = Instant.now();
+        Map<String, Instant> revoked = new HashMap<>(full ? Map.of() : current.revoked());
+        boolean pruned = revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        List<Entry> added = pages.stream()
+                .flatMap(page -> page.revoked().stream())
+                .filter(entry -> entry.expiresAt().isAfter(now))
+                .toList();
+        long cursor = pages.getLast().cursor();
+        if (!full && !pruned && added.isEmpty() && cursor == current.cursor()) {
+            return;
+        }
+        added.forEach(entry -> revoked.put(entry.jti(), entry.expiresAt()));
+
+        // Bit tidak bisa dihapus dari Bloom filter: jti kedaluwarsa hanya menambah false positive (tetap tertahan
+        // set exact) sampai filter dibangun ulang saat full sync atau saat kapasitas terlampaui
+        BloomFilter bloom;
+        int capacity = current.capacity();
+        if (full || revoked.size() > capacity) {
+            capacity = Math.max(expectedInsertions, revoked.size() * 2);
+            bloom = BloomFilter.create(capacity, falsePositiveRate);
+            revoked.keySet().forEach(bloom::add);
+        } else if (added.isEmpty()) {
+            bloom = current.bloom();
+        } else {
+            bloom = current.bloom().copy();
+            for (Entry entry : added) {
+                bloom.add(entry.jti());
+            }
+        }
+        snapshot = new Snapshot(bloom, capacity, Map.copyOf(revoked), cursor);
+    }
+
+    Map<String, Instant> revoked() {
+        return snapshot.revoked();
+    }
+
+    private record Snapshot(BloomFilter bloom, int capacity, Map<String, Instant> revoked, long cursor) {
+    }
+
+    record Page(long cursor, List<Entry> revoked) {
+    }
+
+    record Entry(String jti, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.takapedia.apigateway.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Set;
+
+public record VerifiedToken(
+        String tokenId,   // klaim jti, dicek ke RevocationList
+        String subject,
+        String role,
+        Instant expiresAt
+) {
+    public static VerifiedToken from(Jwt jwt) {
+        return new VerifiedToken(
+                jwt.getId(),
+                jwt.getSubject(),
+                jwt.getClaimAsString("role"),
+                jwt.getExpiresAt()
+        );
+    }
+
+    // Nama klaim JWT yang bisa dibaca dari token terverifikasi (dipakai EdgeAnswer)
+    public static final Set<String> CLAIMS = Set.of("sub", "role", "jti", "exp");
+
+    public Object claim(String name) {
+        return switch (name) {
+            case "sub" -> subject;
+            case "role" -> role;
+            case "jti" -> tokenId;
+            case "exp" -> expiresAt != null ? expiresAt.getEpochSecond() : null;
+            default -> throw new IllegalArgumentException("Klaim tidak dikenal: " + name);
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.takapedia.apigateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapturingResponseTest {
+
+    private static DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void storesAsSoonAsContentLengthBytesArrive_beforeUpstreamCompletes() {
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        CapturingResponse response = new CapturingResponse(new MockServerHttpResponse(), 1024, r -> stored::set);
+        response.getHeaders().setContentLength(11);
+
+        // Upstream belum selesai (mis. koneksi masih dibuka) walau semua byte sudah terkirim
+        Disposable write = response.writeWith(Flux.just(buffer("hello "), buffer("world")).concatWith(Flux.never()))
+                .subscribe();
+
+        assertThat(stored.get()).asString(StandardCharsets.UTF_8).isEqualTo("hello world");
+        write.dispose();
+    }
+
+    @Test
+    void withoutContentLength_storesOnCompletion() {
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        CapturingResponse response = new CapturingResponse(new MockServerHttpResponse(), 1024, r -> stored::set);
+
+        response.writeWith(Flux.just(buffer("hello "), buffer("world"))).block();
+
+        assertThat(stored.get()).asString(StandardCharsets.UTF_8).isEqualTo("hello world");
+    }
+
+    @Test
+    void overflow_isNotStored() {
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        CapturingResponse response = new CapturingResponse(new MockServerHttpResponse(), 8, r -> stored::set);
+
+        response.writeWith(Flux.just(buffer("hello "), buffer("world"))).block();
+
+        assertThat(stored.get()).isNull();
+    }
+}
@@ -0,0 +1,156 @@
+package com.takapedia.apigateway.cache;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EdgeCacheRouteTest {
+
+    static WireMockServer wireMock;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EdgeResponseCache edgeCache;
+
+    WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerProductUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.product.url", () -> "http://localhost:" + wireMock.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMock.resetAll();
+        edgeCache.purge(null);
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    private void stubSearch(String body) {
+        wireMock.stubFor(get(urlPathEqualTo("/api/v1/products/search"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+    }
+
+    @Test
+    void repeatedQuery_isServedFromGateway() {
+        stubSearch("{\"total\":1}");
+
+        webTestClient.get().uri("/api/v1/products/search?q=laptop&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "MISS");
+
+        String etag = webTestClient.get().uri("/api/v1/products/search?size=10&q=laptop")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectBody().json("{\"total\":1}")
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        assertThat(etag).isNotBlank();
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/api/v1/products/search")));
+    }
+
+    @Test
+    void matchingIfNoneMatch_returnsNotModified() {
+        stubSearch("{\"total\":2}");
+        webTestClient.get().uri("/api/v1/products/search?q=hp").exchange().expectStatus().isOk();
+        String etag = webTestClient.get().uri("/api/v1/products/search?q=hp")
+                .exchange()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/v1/products/search?q=hp")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void upstreamEtag_isReplacedByDigestSoIfNoneMatchStillWorks() {
+        wireMock.stubFor(get(urlPathEqualTo("/api/v1/products/search"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"upstream-v1\"")
+                        .withBody("{\"total\":4}")));
+        webTestClient.get().uri("/api/v1/products/search?q=tab")
+                .exchange()
+                .expectBody().json("{\"total\":4}");
+        String etag = webTestClient.get().uri("/api/v1/products/search?q=tab")
+                .exchange()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        assertThat(etag).isNotEqualTo("\"upstream-v1\"");
+        webTestClient.get().uri("/api/v1/products/search?q=tab")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void noStoreResponse_isNotCached() {
+        wireMock.stubFor(get(urlPathEqualTo("/api/v1/products/search"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Cache-Control", "no-store")
+                        .withBody("{}")));
+
+        webTestClient.get().uri("/api/v1/products/search?q=tv").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/v1/products/search?q=tv").exchange().expectStatus().isOk();
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/api/v1/products/search")));
+    }
+
+    @Test
+    void purge_forcesNextRequestUpstream() {
+        stubSearch("{\"total\":3}");
+        // Body dibaca sampai habis: exchange() sendiri selesai begitu header sampai, sebelum entry tersimpan
+        webTestClient.get().uri("/api/v1/products/search?q=tv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"total\":3}");
+
+        edgeCache.purge("/api/v1/products");
+        webTestClient.get().uri("/api/v1/products/search?q=tv")
+                .exchange()
+                .expectHeader().valueEquals("X-Cache", "MISS");
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/api/v1/products/search")));
+    }
+}
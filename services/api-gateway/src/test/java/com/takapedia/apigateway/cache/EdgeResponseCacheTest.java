@@ -0,0 +1,65 @@
+package com.takapedia.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EdgeResponseCacheTest {
+
+    private final EdgeResponseCache cache = new EdgeResponseCache(DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+
+    private static String key(String uri) {
+        return EdgeResponseCache.keyOf(MockServerHttpRequest.get(uri).build());
+    }
+
+    private static CachedResponse response(String body) {
+        return CachedResponse.of(HttpStatus.OK, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8),
+                Duration.ofMinutes(1));
+    }
+
+    @Test
+    void key_ignoresQueryParamOrderAndRedundantSlashes() {
+        assertThat(key("/api/v1/products/search?size=10&q=laptop"))
+                .isEqualTo(key("/api/v1//products/search/?q=laptop&size=10"))
+                .isEqualTo("/api/v1/products/search?q=laptop&size=10");
+    }
+
+    @Test
+    void key_keepsValueOrderOfRepeatedParams() {
+        assertThat(key("/api/v1/products?sort=price&sort=name"))
+                .isNotEqualTo(key("/api/v1/products?sort=name&sort=price"));
+    }
+
+    @Test
+    void etag_isStableForSameBody() {
+        assertThat(response("{\"a\":1}").etag())
+                .isEqualTo(response("{\"a\":1}").etag())
+                .isNotEqualTo(response("{\"a\":2}").etag())
+                .startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void purge_removesOnlyMatchingSubtree() {
+        cache.put(key("/api/v1/products/search?q=a"), response("a"));
+        cache.put(key("/api/v1/products/123"), response("b"));
+        cache.put(key("/api/v1/productsearch"), response("c"));
+
+        assertThat(cache.purge("/api/v1/products/search")).isEqualTo(1);
+        assertThat(cache.get(key("/api/v1/products/search?q=a"))).isNull();
+        assertThat(cache.get(key("/api/v1/products/123"))).isNotNull();
+
+        assertThat(cache.purge("/api/v1/products")).isEqualTo(1);
+        assertThat(cache.get(key("/api/v1/productsearch"))).isNotNull();
+
+        assertThat(cache.purge(null)).isEqualTo(1);
+        assertThat(cache.get(key("/api/v1/productsearch"))).isNull();
+    }
+}
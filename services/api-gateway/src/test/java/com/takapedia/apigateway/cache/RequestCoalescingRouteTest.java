@@ -0,0 +1,117 @@
+package com.takapedia.apigateway.cache;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RequestCoalescingRouteTest {
+
+    static WireMockServer wireMock;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    WebClient webClient;
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerProductUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.product.url", () -> "http://localhost:" + wireMock.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMock.resetAll();
+        webClient = WebClient.create("http://localhost:" + port);
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareOneUpstreamCall() {
+        wireMock.stubFor(get(urlEqualTo("/api/v1/products/flash-sale"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(500)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":\"flash-sale\"}")));
+
+        // no-cache supaya tidak dilayani EdgeCache dan semua request sampai ke filter coalescing
+        List<String> bodies = Flux.range(0, 8)
+                .flatMap(i -> webClient.get().uri("/api/v1/products/flash-sale")
+                        .header("Cache-Control", "no-cache")
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .collectList()
+                .block();
+
+        assertThat(bodies).hasSize(8).allMatch("{\"id\":\"flash-sale\"}"::equals);
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/api/v1/products/flash-sale")));
+        assertThat(meterRegistry.get("gateway.coalescing.fan_in").summary().max()).isEqualTo(8);
+    }
+
+    @Test
+    void followersFallBack_whenLeaderResponseIsNotShareable() {
+        wireMock.stubFor(get(urlEqualTo("/api/v1/products/with-cookie"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(300)
+                        .withHeader("Set-Cookie", "session=abc")
+                        .withBody("{}")));
+
+        Flux.range(0, 3)
+                .flatMap(i -> webClient.get().uri("/api/v1/products/with-cookie")
+                        .header("Cache-Control", "no-cache")
+                        .retrieve()
+                        .toBodilessEntity())
+                .blockLast();
+
+        wireMock.verify(3, getRequestedFor(urlEqualTo("/api/v1/products/with-cookie")));
+    }
+
+    @Test
+    void followersFallBack_whenLeaderFails() {
+        wireMock.stubFor(get(urlEqualTo("/api/v1/products/unstable"))
+                .willReturn(aResponse()
+                        .withStatus(503)
+                        .withFixedDelay(300)
+                        .withBody("{}")));
+
+        Flux.range(0, 3)
+                .flatMap(i -> webClient.get().uri("/api/v1/products/unstable")
+                        .header("Cache-Control", "no-cache")
+                        .exchangeToMono(ClientResponse::releaseBody))
+                .blockLast();
+
+        wireMock.verify(3, getRequestedFor(urlEqualTo("/api/v1/products/unstable")));
+    }
+}
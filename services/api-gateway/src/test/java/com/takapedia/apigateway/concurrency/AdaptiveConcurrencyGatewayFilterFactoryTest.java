@@ -0,0 +1,56 @@
+package com.takapedia.apigateway.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyGatewayFilterFactory factory =
+            new AdaptiveConcurrencyGatewayFilterFactory(meterRegistry);
+
+    private static AdaptiveConcurrencyGatewayFilterFactory.Config config(int initialLimit) {
+        AdaptiveConcurrencyGatewayFilterFactory.Config config = new AdaptiveConcurrencyGatewayFilterFactory.Config()
+                .setInitialLimit(initialLimit);
+        config.setRouteId("product-service");
+        return config;
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("route", "product-service").gauge().value();
+    }
+
+    // Request yang belum selesai menahan satu slot limiter
+    private static Disposable holdSlot(GatewayFilter filter) {
+        return filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products")),
+                exchange -> Mono.never()).subscribe();
+    }
+
+    @Test
+    void refreshWithSameConfig_keepsLimiter() {
+        Disposable inFlight = holdSlot(factory.apply(config(50)));
+
+        factory.apply(config(50));
+
+        assertThat(gauge("gateway.concurrency.in_flight")).isEqualTo(1);
+        inFlight.dispose();
+    }
+
+    @Test
+    void refreshWithChangedConfig_replacesLimiter() {
+        Disposable inFlight = holdSlot(factory.apply(config(50)));
+
+        factory.apply(config(10));
+
+        assertThat(gauge("gateway.concurrency.limit")).isEqualTo(10);
+        assertThat(gauge("gateway.concurrency.in_flight")).isZero();
+        inFlight.dispose();
+    }
+}
@@ -0,0 +1,90 @@
+package com.takapedia.apigateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(100).toNanos();
+
+    // Simulasikan route yang selalu penuh: in-flight = limit saat sampel diambil
+    private static void saturate(GradientConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            assertThat(limiter.tryAcquire(1.0)).isTrue();
+            limiter.release(rttNanos, limiter.limit(), false);
+        }
+    }
+
+    @Test
+    void stableLatency_growsLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 5, 200);
+
+        saturate(limiter, FAST, 50);
+
+        assertThat(limiter.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void risingLatency_shrinksLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(100, 5, 200);
+        saturate(limiter, FAST, 200);
+        int before = limiter.limit();
+
+        saturate(limiter, SLOW, 20);
+
+        assertThat(limiter.limit()).isLessThan(before);
+    }
+
+    @Test
+    void errors_backOffMultiplicatively_butNotBelowMin() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(100, 5, 200);
+
+        limiter.tryAcquire(1.0);
+        limiter.release(FAST, 100, true);
+        assertThat(limiter.limit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(1.0);
+            limiter.release(FAST, 100, true);
+        }
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void lowLane_isShedBeforeCriticalLane() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 5, 200);
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(limiter.tryAcquire(0.6)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire(0.6)).isFalse();
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(7);
+    }
+
+    @Test
+    void cancelledRequest_releasesSlotWithoutSample() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 5, 200);
+
+        limiter.tryAcquire(1.0);
+        limiter.release(-1, 10, false);
+
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void lane_isDerivedFromVerifiedIdentityAndMethod() {
+        assertThat(Lane.of(MockServerHttpRequest.get("/api/v1/products/search").build())).isEqualTo(Lane.LOW);
+        assertThat(Lane.of(MockServerHttpRequest.get("/api/v1/orders")
+                .header("X-User-Id", "user-1").build())).isEqualTo(Lane.NORMAL);
+        assertThat(Lane.of(MockServerHttpRequest.post("/api/v1/orders")
+                .header("X-User-Id", "user-1").build())).isEqualTo(Lane.CRITICAL);
+    }
+}
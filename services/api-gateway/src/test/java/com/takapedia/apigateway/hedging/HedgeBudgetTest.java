@@ -0,0 +1,48 @@
+package com.takapedia.apigateway.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeBudgetTest {
+
+    @Test
+    void hedges_areLimitedToRatioOfRequests() {
+        HedgeBudget budget = new HedgeBudget(0.1, 10);
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.onRequest();
+            if (budget.tryHedge()) {
+                hedges++;
+            }
+        }
+
+        assertThat(hedges).isEqualTo(100);
+    }
+
+    @Test
+    void ratioAboveOne_isCappedSoLoadNeverMoreThanDoubles() {
+        HedgeBudget budget = new HedgeBudget(3.0, 10);
+
+        budget.onRequest();
+
+        assertThat(budget.tryHedge()).isTrue();
+        assertThat(budget.tryHedge()).isFalse();
+    }
+
+    @Test
+    void unusedCredits_areCappedAtBurst() {
+        HedgeBudget budget = new HedgeBudget(1.0, 5);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        int hedges = 0;
+        while (budget.tryHedge()) {
+            hedges++;
+        }
+
+        assertThat(hedges).isEqualTo(5);
+    }
+}
@@ -0,0 +1,143 @@
+package com.takapedia.apigateway.hedging;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.takapedia.apigateway.latency.LatencyRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+class HedgeGatewayFilterFactoryTest {
+
+    static WireMockServer primary;
+    static WireMockServer replica;
+
+    HedgeGatewayFilterFactory factory;
+    GatewayFilter filter;
+
+    @BeforeAll
+    static void startWireMock() {
+        primary = new WireMockServer(options().dynamicPort());
+        replica = new WireMockServer(options().dynamicPort());
+        primary.start();
+        replica.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        primary.stop();
+        replica.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary.resetAll();
+        replica.resetAll();
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setResponseTimeout(Duration.ofSeconds(2));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        factory = new HedgeGatewayFilterFactory(HttpClient.create(), properties,
+                new LatencyRecorder(meterRegistry), meterRegistry);
+        // Budget 0: hedge selalu ditolak
+        filter = factory.apply(new HedgeGatewayFilterFactory.Config()
+                .setInstances(List.of(URI.create("http://localhost:" + replica.port())))
+                .setMinDelay(Duration.ofMillis(10))
+                .setMaxDelay(Duration.ofMillis(10))
+                .setBudgetRatio(0));
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://localhost:" + primary.port() + "/api/v1/products/1"));
+        return exchange;
+    }
+
+    @Test
+    void primaryFailure_withHedgeDenied_returnsBadGateway() {
+        primary.stubFor(get(urlEqualTo("/api/v1/products/1"))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        StepVerifier.create(filter.filter(exchange(), exchange -> Mono.empty()))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_GATEWAY))
+                .verify(Duration.ofSeconds(10));
+
+        replica.verify(0, getRequestedFor(urlEqualTo("/api/v1/products/1")));
+    }
+
+    @Test
+    void primaryTimeout_usesGatewayResponseTimeout() {
+        primary.stubFor(get(urlEqualTo("/api/v1/products/1"))
+                .willReturn(aResponse().withStatus(200).withFixedDelay(5000)));
+
+        StepVerifier.create(filter.filter(exchange(), exchange -> Mono.empty()))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.GATEWAY_TIMEOUT))
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void upstreamErrorStatus_isPassedThrough() {
+        primary.stubFor(get(urlEqualTo("/api/v1/products/1"))
+                .willReturn(aResponse().withStatus(404).withBody("{\"error\":\"not found\"}")));
+        MockServerWebExchange exchange = exchange();
+
+        StepVerifier.create(filter.filter(exchange, e -> Mono.empty())).verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNext("{\"error\":\"not found\"}")
+                .verifyComplete();
+    }
+
+    @Test
+    void refreshWithChangedBudget_replacesBudget() {
+        primary.stubFor(get(urlEqualTo("/api/v1/products/1"))
+                .willReturn(aResponse().withStatus(200).withBody("primary").withFixedDelay(1000)));
+        replica.stubFor(get(urlEqualTo("/api/v1/products/1"))
+                .willReturn(aResponse().withStatus(200).withBody("replica")));
+        // Route yang sama di-refresh: budget 0 → 1
+        GatewayFilter refreshed = factory.apply(new HedgeGatewayFilterFactory.Config()
+                .setInstances(List.of(URI.create("http://localhost:" + replica.port())))
+                .setMinDelay(Duration.ofMillis(10))
+                .setMaxDelay(Duration.ofMillis(10))
+                .setBudgetRatio(1));
+        MockServerWebExchange exchange = exchange();
+
+        StepVerifier.create(refreshed.filter(exchange, e -> Mono.empty())).verifyComplete();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HedgeGatewayFilterFactory.HEDGED_HEADER))
+                .isEqualTo("true");
+    }
+
+    @Test
+    void untrackedPercentile_isRejected() {
+        assertThatThrownBy(() -> factory.apply(new HedgeGatewayFilterFactory.Config()
+                .setInstances(List.of(URI.create("http://localhost:" + replica.port())))
+                .setPercentile(0.75)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("0.75");
+    }
+}
@@ -0,0 +1,100 @@
+package com.takapedia.apigateway.hedging;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HedgeRouteTest {
+
+    static WireMockServer primary;
+    static WireMockServer replica;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startWireMock() {
+        primary = new WireMockServer(options().dynamicPort());
+        replica = new WireMockServer(options().dynamicPort());
+        primary.start();
+        replica.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        primary.stop();
+        replica.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerProductUrls(DynamicPropertyRegistry registry) {
+        registry.add("services.product.url", () -> "http://localhost:" + primary.port());
+        registry.add("services.product.replicas", () -> "http://localhost:" + replica.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary.resetAll();
+        replica.resetAll();
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    private static void stub(WireMockServer server, String path, int delayMillis, String body) {
+        server.stubFor(get(urlEqualTo(path))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(delayMillis)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+    }
+
+    @Test
+    void slowPrimary_isBeatenByHedge() {
+        stub(primary, "/api/v1/products/slow", 2000, "{\"from\":\"primary\"}");
+        stub(replica, "/api/v1/products/slow", 0, "{\"from\":\"replica\"}");
+
+        webTestClient.get().uri("/api/v1/products/slow")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Hedged", "true")
+                .expectBody().jsonPath("$.from").isEqualTo("replica");
+
+        assertThat(meterRegistry.get("gateway.hedge.won").tag("route", "product-service").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void fastPrimary_isNotHedged() {
+        stub(primary, "/api/v1/products/fast", 0, "{\"from\":\"primary\"}");
+        stub(replica, "/api/v1/products/fast", 0, "{\"from\":\"replica\"}");
+
+        webTestClient.get().uri("/api/v1/products/fast")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Hedged")
+                .expectBody().jsonPath("$.from").isEqualTo("primary");
+
+        replica.verify(0, getRequestedFor(urlEqualTo("/api/v1/products/fast")));
+    }
+}
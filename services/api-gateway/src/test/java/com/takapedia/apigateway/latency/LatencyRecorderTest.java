@@ -0,0 +1,69 @@
+package com.takapedia.apigateway.latency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    private final LatencyRecorder recorder = new LatencyRecorder(new SimpleMeterRegistry());
+
+    @Test
+    void percentile_isNullWithoutSamples() {
+        assertThat(recorder.percentile("product-search-service", LatencyRecorder.UPSTREAM, 0.95)).isNull();
+    }
+
+    @Test
+    void percentiles_separateFastAndSlowRequests() {
+        for (int i = 0; i < 990; i++) {
+            recorder.record("product-search-service", LatencyRecorder.UPSTREAM, Duration.ofMillis(10).toNanos());
+        }
+        for (int i = 0; i < 10; i++) {
+            recorder.record("product-search-service", LatencyRecorder.UPSTREAM, Duration.ofMillis(500).toNanos());
+        }
+
+        assertThat(recorder.percentile("product-search-service", LatencyRecorder.UPSTREAM, 0.5))
+                .isBetween(Duration.ofMillis(9), Duration.ofMillis(11));
+        assertThat(recorder.percentile("product-search-service", LatencyRecorder.UPSTREAM, 0.999))
+                .isGreaterThan(Duration.ofMillis(400));
+    }
+
+    @Test
+    void percentile_matchesTrackedValueWithinTolerance() {
+        recorder.record("product-search-service", LatencyRecorder.UPSTREAM, Duration.ofMillis(10).toNanos());
+
+        // 0.1 + 0.85 = 0.9499999999999999
+        assertThat(recorder.percentile("product-search-service", LatencyRecorder.UPSTREAM, 0.1 + 0.85)).isNotNull();
+        assertThat(LatencyRecorder.isTracked(0.1 + 0.85)).isTrue();
+        assertThat(LatencyRecorder.isTracked(0.75)).isFalse();
+    }
+
+    @Test
+    void summary_groupsByRouteAndPhase() {
+        recorder.record("order-service", LatencyRecorder.JWT, 1_000_000);
+        recorder.record("order-service", LatencyRecorder.TOTAL, 5_000_000);
+
+        Map<String, Map<String, Map<String, Object>>> summary = recorder.summary();
+
+        assertThat(summary.get("order-service")).containsOnlyKeys(LatencyRecorder.JWT, LatencyRecorder.TOTAL);
+        assertThat(summary.get("order-service").get(LatencyRecorder.TOTAL))
+                .containsKeys("count", "p50", "p99", "p999", "max");
+    }
+
+    @Test
+    void contextRecording_addsPhaseToRequestTimings() {
+        RequestTimings timings = new RequestTimings(0);
+
+        recorder.record(Context.of(RequestTimings.class, timings), "order-service",
+                LatencyRecorder.RATE_LIMIT, 250_000);
+        timings.add(LatencyRecorder.UPSTREAM, 12_500_000);
+
+        assertThat(timings.serverTiming(15_000_000))
+                .isEqualTo("ratelimit;dur=0.250, upstream;dur=12.500, total;dur=15.000");
+    }
+}
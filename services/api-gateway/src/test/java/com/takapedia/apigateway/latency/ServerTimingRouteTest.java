@@ -0,0 +1,74 @@
+package com.takapedia.apigateway.latency;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServerTimingRouteTest {
+
+    static WireMockServer wireMock;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    LatencyRecorder recorder;
+
+    WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerAuthUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.auth.url", () -> "http://localhost:" + wireMock.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+        wireMock.stubFor(post(urlEqualTo("/api/v1/auth/login"))
+                .willReturn(aResponse().withStatus(200).withBody("{}")));
+    }
+
+    @Test
+    void serverTiming_isAddedOnlyWhenRequested() {
+        webTestClient.post().uri("/api/v1/auth/login")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("Server-Timing");
+
+        String serverTiming = webTestClient.post().uri("/api/v1/auth/login")
+                .header("X-Server-Timing", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getFirst("Server-Timing");
+
+        assertThat(serverTiming).contains("upstream;dur=").contains("total;dur=");
+        assertThat(recorder.summary().get("auth-service")).containsKeys(LatencyRecorder.UPSTREAM, LatencyRecorder.TOTAL);
+    }
+}
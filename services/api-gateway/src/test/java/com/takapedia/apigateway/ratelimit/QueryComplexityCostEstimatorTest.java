@@ -0,0 +1,62 @@
+package com.takapedia.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryComplexityCostEstimatorTest {
+
+    private final QueryComplexityCostEstimator estimator = new QueryComplexityCostEstimator(
+            new RequestCostProperties(1, 20, 100, 1, 3,
+                    List.of("/api/v1/products", "/api/v1/products/search"), 20,
+                    Map.of("ADMIN", 0.5, "USER", 1.0, "ANONYMOUS", 1.5)));
+
+    private int cost(MockServerHttpRequest.BaseBuilder<?> request) {
+        return estimator.estimate(MockServerWebExchange.from(request.build()));
+    }
+
+    @Test
+    void getById_costsBaseOnly() {
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products/123")
+                .header("X-User-Role", "USER"))).isEqualTo(1);
+    }
+
+    @Test
+    void defaultSearch_paysForAggregations() {
+        // 1 base + 10/20 size + 3 agregasi = 4.5 → 5
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products/search?q=laptop")
+                .header("X-User-Role", "USER"))).isEqualTo(5);
+    }
+
+    @Test
+    void largeSortedDeepSearch_costsMore() {
+        // 1 + 100/20 + (5*100)/100 + 1 sort + 3 agregasi = 15
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products/search?size=100&page=5&sort=price,desc")
+                .header("X-User-Role", "USER"))).isEqualTo(15);
+    }
+
+    @Test
+    void cost_isCappedAtMaxTokens() {
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products/search?size=1000&page=50")
+                .header("X-User-Role", "USER"))).isEqualTo(20);
+    }
+
+    @Test
+    void roleMultiplier_isApplied() {
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products/search")
+                .header("X-User-Role", "ADMIN"))).isEqualTo(3);
+        // tanpa role dianggap anonim: 4.5 * 1.5 = 6.75 → 7
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products/search"))).isEqualTo(7);
+    }
+
+    @Test
+    void invalidParams_fallBackToDefaults() {
+        assertThat(cost(MockServerHttpRequest.get("/api/v1/products?size=banyak&page=-3")
+                .header("X-User-Role", "USER"))).isEqualTo(5);
+    }
+}
@@ -0,0 +1,130 @@
+package com.takapedia.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisQuotaReconcilerTest {
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private RedisQuotaReconciler reconciler;
+    private Map<String, TokenBucket> buckets;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        reconciler = new RedisQuotaReconciler(redisTemplate, Duration.ofMillis(100),
+                Duration.ofSeconds(60), new SimpleMeterRegistry());
+        buckets = new ConcurrentHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redisReturns(List<Long> totals) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(totals));
+    }
+
+    @Test
+    void consumptionOnOtherNodes_isDrainedFromLocalBucket() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        buckets.put("product-service:user-1", bucket);
+        bucket.tryConsume(1, 10, 2, 0);
+
+        // sinkron pertama hanya mencatat baseline
+        redisReturns(List.of(2L));
+        StepVerifier.create(reconciler.reconcile(buckets, 0)).verifyComplete();
+
+        // node ini pakai 1 lagi, node lain pakai 4 → total global 7
+        bucket.tryConsume(1, 10, 1, 0);
+        redisReturns(List.of(7L));
+        StepVerifier.create(reconciler.reconcile(buckets, 0)).verifyComplete();
+
+        // 10 - 2 - 1 (lokal) - 4 (node lain) = 3
+        assertThat(bucket.tryConsume(1, 10, 3, 0)).isEqualTo(0);
+        assertThat(bucket.tryConsume(1, 10, 1, 0)).isEqualTo(TokenBucket.DENIED);
+        assertThat(reconciler.isDegraded()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void allKeysOfOneScriptCall_shareHashTag() {
+        buckets.put("product-service:user-1", new TokenBucket(10, 0));
+        buckets.put("auth-service:10.0.0.7", new TokenBucket(10, 0));
+        buckets.values().forEach(bucket -> bucket.tryConsume(1, 10, 1, 0));
+        redisReturns(List.of(1L, 1L));
+
+        StepVerifier.create(reconciler.reconcile(buckets, 0)).verifyComplete();
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), anyList());
+        // Redis Cluster hanya melihat isi {...} pertama untuk menentukan slot
+        assertThat(keys.getValue()).hasSize(2)
+                .allSatisfy(key -> assertThat(key).startsWith("{hybrid_rate_limiter}"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisFailure_switchesToDegradedLocalMode() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        buckets.put("product-service:user-1", bucket);
+        bucket.tryConsume(1, 10, 1, 0);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")));
+
+        StepVerifier.create(reconciler.reconcile(buckets, 0)).verifyComplete();
+
+        assertThat(reconciler.isDegraded()).isTrue();
+        assertThat(bucket.tryConsume(1, 10, 1, 0)).isEqualTo(8);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedSync_resendsConsumptionOnNextSync() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        buckets.put("product-service:user-1", bucket);
+        bucket.tryConsume(1, 10, 3, 0);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")))
+                .thenReturn(Flux.just(List.of(5L)));
+
+        StepVerifier.create(reconciler.reconcile(buckets, 0)).verifyComplete();
+        bucket.tryConsume(1, 10, 2, 0);
+        StepVerifier.create(reconciler.reconcile(buckets, 0)).verifyComplete();
+
+        // 3 dari sync yang gagal + 2 sesudahnya
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), args.capture());
+        assertThat(args.getAllValues().get(0)).containsExactly("60", "3");
+        assertThat(args.getAllValues().get(1)).containsExactly("60", "5");
+        assertThat(reconciler.isDegraded()).isFalse();
+    }
+
+    @Test
+    void idleBucketWithoutUsage_isEvicted() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        buckets.put("product-service:user-1", bucket);
+
+        StepVerifier.create(reconciler.reconcile(buckets, Duration.ofMinutes(5).toNanos())).verifyComplete();
+
+        assertThat(buckets).isEmpty();
+    }
+}
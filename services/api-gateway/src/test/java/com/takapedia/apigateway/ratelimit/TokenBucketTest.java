@@ -0,0 +1,60 @@
+package com.takapedia.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void consumesUpToBurstCapacity_thenDenies() {
+        TokenBucket bucket = new TokenBucket(3, 0);
+
+        assertThat(bucket.tryConsume(1, 3, 1, 0)).isEqualTo(2);
+        assertThat(bucket.tryConsume(1, 3, 1, 0)).isEqualTo(1);
+        assertThat(bucket.tryConsume(1, 3, 1, 0)).isEqualTo(0);
+        assertThat(bucket.tryConsume(1, 3, 1, 0)).isEqualTo(TokenBucket.DENIED);
+    }
+
+    @Test
+    void refillsAtReplenishRate_cappedAtBurst() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        bucket.tryConsume(5, 10, 10, 0);
+
+        // 1 detik dengan rate 5/detik → 5 token kembali
+        assertThat(bucket.tryConsume(5, 10, 5, SECOND)).isEqualTo(0);
+        // 10 detik kemudian tetap mentok di burst
+        assertThat(bucket.tryConsume(5, 10, 1, 11 * SECOND)).isEqualTo(9);
+    }
+
+    @Test
+    void multiTokenRequest_deniedWhenNotEnough() {
+        TokenBucket bucket = new TokenBucket(4, 0);
+
+        assertThat(bucket.tryConsume(1, 4, 3, 0)).isEqualTo(1);
+        assertThat(bucket.tryConsume(1, 4, 3, 0)).isEqualTo(TokenBucket.DENIED);
+        assertThat(bucket.tryConsume(1, 4, 1, 0)).isEqualTo(0);
+    }
+
+    @Test
+    void drain_removesTokensUsedOnOtherNodes() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+
+        bucket.drain(8);
+
+        assertThat(bucket.tryConsume(1, 10, 2, 0)).isEqualTo(0);
+        assertThat(bucket.tryConsume(1, 10, 1, 0)).isEqualTo(TokenBucket.DENIED);
+    }
+
+    @Test
+    void takeUnsynced_returnsConsumedSinceLastCall() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        bucket.tryConsume(1, 10, 2, 0);
+        bucket.tryConsume(1, 10, 3, 0);
+
+        assertThat(bucket.takeUnsynced()).isEqualTo(5);
+        assertThat(bucket.takeUnsynced()).isZero();
+    }
+}
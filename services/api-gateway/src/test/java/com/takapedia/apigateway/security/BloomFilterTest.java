@@ -0,0 +1,54 @@
+package com.takapedia.apigateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsFalseNegative() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        String[] added = new String[10_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = UUID.randomUUID().toString();
+            filter.add(added[i]);
+        }
+
+        for (String jti : added) {
+            assertThat(filter.mightContain(jti)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void copyIsIndependentOfOriginal() {
+        BloomFilter original = BloomFilter.create(100, 0.01);
+        original.add("jti-1");
+
+        BloomFilter copy = original.copy();
+        copy.add("jti-2");
+
+        assertThat(copy.mightContain("jti-1")).isTrue();
+        assertThat(original.mightContain("jti-2")).isFalse();
+    }
+}
@@ -0,0 +1,111 @@
+package com.takapedia.apigateway.security;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EdgeAnswerRouteTest {
+
+    static WireMockServer wireMock;
+    static RSAKey rsa;
+
+    @LocalServerPort
+    int port;
+
+    WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startWireMock() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new JWKSet(rsa.toPublicJWK()).toString())));
+        wireMock.stubFor(get(urlPathEqualTo("/internal/revocations"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"cursor\":0,\"revoked\":[]}")));
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerAuthUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.auth.url", () -> "http://localhost:" + wireMock.port());
+    }
+
+    @BeforeEach
+    void setupClient() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    @Test
+    void shouldAnswerMeFromVerifiedClaimsWithoutCallingAuthService() throws Exception {
+        webTestClient.get()
+                .uri("/api/v1/auth/me")
+                .header("Authorization", "Bearer " + sign("user-1", "ADMIN"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Cache-Control", "private, no-store")
+                .expectBody()
+                .jsonPath("$.userId").isEqualTo("user-1")
+                .jsonPath("$.role").isEqualTo("ADMIN");
+
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/api/v1/auth/me")));
+    }
+
+    @Test
+    void shouldRejectMeWithoutValidToken() {
+        webTestClient.get()
+                .uri("/api/v1/auth/me")
+                .header("Authorization", "Bearer bukan-jwt")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals("WWW-Authenticate", "Bearer");
+
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/api/v1/auth/me")));
+    }
+
+    private static String sign(String subject, String role) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("rsa-1").build(),
+                new JWTClaimsSet.Builder()
+                        .subject(subject)
+                        .jwtID("jti-" + subject)
+                        .claim("role", role)
+                        .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                        .build());
+        jwt.sign(new RSASSASigner(rsa));
+        return jwt.serialize();
+    }
+}
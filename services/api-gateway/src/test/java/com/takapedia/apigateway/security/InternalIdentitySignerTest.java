@@ -0,0 +1,64 @@
+package com.takapedia.apigateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InternalIdentitySignerTest {
+
+    static final String SECRET = "test-internal-secret-0123456789abcdef";
+    static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    InternalIdentitySigner signer = new InternalIdentitySigner(true, SECRET, Duration.ofSeconds(30),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void sign_payloadContainsSubjectRoleAndExpiry() {
+        String header = signer.sign(new VerifiedToken("jti-1", "user-1", "USER", NOW.plusSeconds(3600)));
+
+        assertThat(payloadOf(header)).isEqualTo("user-1|USER|" + NOW.plusSeconds(30).getEpochSecond());
+    }
+
+    @Test
+    void sign_expiryDoesNotExceedJwt() {
+        String header = signer.sign(new VerifiedToken("jti-1", "user-1", "USER", NOW.plusSeconds(5)));
+
+        assertThat(payloadOf(header)).endsWith("|" + NOW.plusSeconds(5).getEpochSecond());
+    }
+
+    @Test
+    void sign_isDeterministicForSameInput() {
+        VerifiedToken token = new VerifiedToken("jti-1", "user-1", "ADMIN", NOW.plusSeconds(3600));
+
+        assertThat(signer.sign(token)).isEqualTo(signer.sign(token));
+        assertThat(signer.sign(token)).isNotEqualTo(signer.sign(new VerifiedToken("jti-1", "user-2", "ADMIN", NOW.plusSeconds(3600))));
+    }
+
+    @Test
+    void sign_returnsNullWhenDisabledOrRoleMissing() {
+        InternalIdentitySigner disabled = new InternalIdentitySigner(false, "", Duration.ofSeconds(30));
+
+        assertThat(disabled.sign(new VerifiedToken("jti-1", "user-1", "USER", NOW))).isNull();
+        assertThat(signer.sign(new VerifiedToken("jti-1", "user-1", null, NOW))).isNull();
+        assertThat(signer.sign(new VerifiedToken("jti-1", "user|1", "USER", NOW))).isNull();
+    }
+
+    @Test
+    void constructor_secretTooShort_fails() {
+        assertThatThrownBy(() -> new InternalIdentitySigner(true, "short", Duration.ofSeconds(30)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String payloadOf(String header) {
+        return new String(Base64.getUrlDecoder().decode(header.substring(0, header.indexOf('.'))),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,138 @@
+package com.takapedia.apigateway.security;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwksKeyStoreTest {
+
+    static WireMockServer wireMock;
+    static RSAKey key1;
+    static RSAKey key2;
+
+    JwksKeyStore keyStore;
+
+    @BeforeAll
+    static void startWireMock() throws Exception {
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        key1 = new RSAKeyGenerator(2048).keyID("takapedia-key-1").generate();
+        key2 = new RSAKeyGenerator(2048).keyID("takapedia-key-2").generate();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMock.resetAll();
+        keyStore = new JwksKeyStore(WebClient.builder(),
+                "http://localhost:" + wireMock.port() + "/.well-known/jwks.json",
+                Duration.ofMinutes(5), Duration.ZERO, Duration.ofSeconds(2), new SimpleMeterRegistry());
+    }
+
+    private void stubJwks(RSAKey... keys) {
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new JWKSet(java.util.List.of(keys)).toPublicJWKSet().toString())));
+    }
+
+    private static SignedJWT jwtWithKid(String kid) {
+        return new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(kid).build(),
+                new JWTClaimsSet.Builder().subject("user-123").build());
+    }
+
+    @Test
+    void refresh_indexesKeysByKid() {
+        stubJwks(key1, key2);
+
+        keyStore.refresh().block();
+
+        assertThat(keyStore.keys()).containsOnlyKeys("takapedia-key-1", "takapedia-key-2");
+    }
+
+    @Test
+    void concurrentMissesForUnknownKid_triggerSingleFetch() {
+        stubJwks(key1);
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new JWKSet(key1).toPublicJWKSet().toString())));
+
+        Long found = Flux.range(0, 50)
+                .flatMap(i -> keyStore.select(jwtWithKid("takapedia-key-1")))
+                .count()
+                .block();
+
+        assertThat(found).isEqualTo(50);
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/.well-known/jwks.json")));
+    }
+
+    @Test
+    void authServiceDown_keepsLastKnownGoodKeys() {
+        stubJwks(key1);
+        keyStore.refresh().block();
+
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .willReturn(aResponse().withStatus(503)));
+        keyStore.refresh().block();
+
+        assertThat(keyStore.select(jwtWithKid("takapedia-key-1")).collectList().block()).hasSize(1);
+    }
+
+    @Test
+    void rotatedKey_isPickedUpOnMiss() {
+        stubJwks(key1);
+        keyStore.refresh().block();
+
+        stubJwks(key1, key2);
+
+        assertThat(keyStore.select(jwtWithKid("takapedia-key-2")).collectList().block())
+                .extracting(jwk -> jwk.getKeyID())
+                .containsExactly("takapedia-key-2");
+    }
+
+    @Test
+    void refresh_revalidatesWithEtag_andKeepsKeysOn304() {
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(new JWKSet(key1).toPublicJWKSet().toString())));
+        keyStore.refresh().block();
+
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+        keyStore.refresh().block();
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/.well-known/jwks.json"))
+                .withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertThat(keyStore.keys()).containsOnlyKeys("takapedia-key-1");
+    }
+}
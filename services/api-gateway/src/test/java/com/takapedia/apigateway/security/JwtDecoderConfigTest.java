@@ -0,0 +1,123 @@
+package com.takapedia.apigateway.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtDecoderConfigTest {
+
+    static RSAKey rsa;
+    static ECKey ec;
+    static ECKey ec384;
+    static KeyPair edKeyPair;
+    static OctetKeyPair ed;
+
+    ReactiveJwtDecoder decoder = JwtDecoderConfig.decoder(jwt -> Flux.fromIterable(List.<JWK>of(rsa, ec, ec384, ed))
+            .filter(key -> key.getKeyID().equals(jwt.getHeader().getKeyID()))
+            .map(JWK::toPublicJWK));
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        ec = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+        ec384 = new ECKeyGenerator(Curve.P_384).keyID("ec-384").generate();
+        edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        byte[] x = edKeyPair.getPublic().getEncoded();
+        ed = new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(Arrays.copyOfRange(x, x.length - 32, x.length)))
+                .keyID("ed-1")
+                .build();
+    }
+
+    @Test
+    void rs256() throws Exception {
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.RS256, "rsa-1"), claims());
+        jwt.sign(new RSASSASigner(rsa));
+
+        assertThat(decoder.decode(jwt.serialize()).block().getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void es256() throws Exception {
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.ES256, "ec-1"), claims());
+        jwt.sign(new ECDSASigner(ec));
+
+        assertThat(decoder.decode(jwt.serialize()).block().getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void es384() throws Exception {
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.ES384, "ec-384"), claims());
+        jwt.sign(new ECDSASigner(ec384));
+
+        assertThat(decoder.decode(jwt.serialize()).block().getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void eddsa() throws Exception {
+        assertThat(decoder.decode(signEd25519("ed-1")).block().getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void eddsa_tamperedSignature_isRejected() throws Exception {
+        String token = signEd25519("ed-1");
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA" + token.substring(token.lastIndexOf('.') + 5);
+
+        assertThatThrownBy(() -> decoder.decode(tampered).block()).isNotNull();
+    }
+
+    @Test
+    void algorithmNotMatchingKey_isRejected() throws Exception {
+        // Header mengaku ES256 tapi kid menunjuk kunci RSA
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.ES256, "rsa-1"), claims());
+        jwt.sign(new ECDSASigner(ec));
+
+        assertThatThrownBy(() -> decoder.decode(jwt.serialize()).block()).isNotNull();
+    }
+
+    private static String signEd25519(String kid) throws Exception {
+        String signingInput = header(JWSAlgorithm.EdDSA, kid).toBase64URL() + "." + claims().toPayload().toBase64URL();
+        Signature signature = Signature.getInstance("Ed25519");
+        signature.initSign(edKeyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + Base64URL.encode(signature.sign());
+    }
+
+    private static JWSHeader header(JWSAlgorithm algorithm, String kid) {
+        return new JWSHeader.Builder(algorithm).keyID(kid).build();
+    }
+
+    private static JWTClaimsSet claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .claim("role", "USER")
+                .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.takapedia.apigateway.security;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationListTest {
+
+    static WireMockServer wireMock;
+
+    SimpleMeterRegistry meterRegistry;
+    RevocationList revocationList;
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMock.resetAll();
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = newList(Duration.ofMinutes(5));
+    }
+
+    private RevocationList newList(Duration fullSyncInterval) {
+        return new RevocationList(WebClient.builder(),
+                "http://localhost:" + wireMock.port() + "/internal/revocations",
+                Duration.ofSeconds(5), fullSyncInterval, Duration.ofSeconds(2), 2, 1000, 0.01, meterRegistry);
+    }
+
+    private static void stubPage(long after, long cursor, String... jtis) {
+        String exp = Instant.now().plusSeconds(600).toString();
+        StringBuilder entries = new StringBuilder();
+        for (String jti : jtis) {
+            if (!entries.isEmpty()) {
+                entries.append(',');
+            }
+            entries.append("{\"jti\":\"").append(jti).append("\",\"expiresAt\":\"").append(exp).append("\"}");
+        }
+        wireMock.stubFor(get(urlPathEqualTo("/internal/revocations"))
+                .withQueryParam("after", equalTo(String.valueOf(after)))
+                .willReturn(okJson("{\"cursor\":" + cursor + ",\"revoked\":[" + entries + "]}")));
+    }
+
+    @Test
+    void refresh_followsPagesUntilLastPartialPage() {
+        stubPage(0, 2, "jti-1", "jti-2");
+        stubPage(2, 3, "jti-3");
+
+        revocationList.refresh().block();
+
+        assertThat(revocationList.revoked()).containsOnlyKeys("jti-1", "jti-2", "jti-3");
+        assertThat(revocationList.isRevoked("jti-3")).isTrue();
+        assertThat(revocationList.isRevoked("jti-lain")).isFalse();
+        assertThat(revocationList.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void refresh_isIncrementalAfterFirstSync() {
+        stubPage(0, 1, "jti-1");
+        revocationList.refresh().block();
+
+        stubPage(1, 2, "jti-2");
+        revocationList.refresh().block();
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(revocationList.isRevoked("jti-2")).isTrue();
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/internal/revocations"))
+                .withQueryParam("after", equalTo("0")));
+    }
+
+    @Test
+    void fullSync_dropsEntriesNoLongerInFeed() {
+        revocationList = newList(Duration.ZERO);
+        stubPage(0, 1, "jti-1");
+        revocationList.refresh().block();
+
+        // Setelah dihapus di auth-service (mis. kedaluwarsa), full sync berikutnya membangun ulang snapshot
+        stubPage(0, 1);
+        revocationList.refresh().block();
+
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+    }
+
+    @Test
+    void refreshFailure_keepsLastSnapshot() {
+        stubPage(0, 1, "jti-1");
+        revocationList.refresh().block();
+
+        wireMock.stubFor(get(urlPathEqualTo("/internal/revocations")).willReturn(serverError()));
+        revocationList.refresh().block();
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(meterRegistry.counter("gateway.revocation.refresh", "result", "failure").count()).isEqualTo(1);
+    }
+}
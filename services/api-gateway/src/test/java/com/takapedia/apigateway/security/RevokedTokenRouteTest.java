@@ -0,0 +1,116 @@
+package com.takapedia.apigateway.security;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RevokedTokenRouteTest {
+
+    static WireMockServer wireMock;
+    static RSAKey rsa;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    RevocationList revocationList;
+
+    WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startWireMock() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        wireMock.stubFor(get(urlEqualTo("/.well-known/jwks.json"))
+                .willReturn(okJson(new JWKSet(rsa.toPublicJWK()).toString())));
+        wireMock.stubFor(get(urlPathEqualTo("/internal/revocations"))
+                .willReturn(okJson("{\"cursor\":1,\"revoked\":[{\"jti\":\"jti-revoked\",\"expiresAt\":\""
+                        + Instant.now().plusSeconds(600) + "\"}]}")));
+        wireMock.stubFor(get(urlEqualTo("/api/v1/auth/sessions"))
+                .willReturn(okJson("[]")));
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerAuthUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.auth.url", () -> "http://localhost:" + wireMock.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+        revocationList.refresh().block();
+        wireMock.resetRequests();
+    }
+
+    @Test
+    void shouldNotForwardBearerTokenOnceRevoked() throws Exception {
+        webTestClient.get()
+                .uri("/api/v1/auth/sessions")
+                .header("Authorization", "Bearer " + sign("jti-revoked"))
+                .exchange()
+                .expectStatus().isOk();
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/api/v1/auth/sessions"))
+                .withoutHeader("Authorization")
+                .withoutHeader("X-User-Id")
+                .withoutHeader(InternalIdentitySigner.HEADER));
+    }
+
+    @Test
+    void shouldForwardBearerTokenWhenNotRevoked() throws Exception {
+        String token = sign("jti-valid");
+
+        webTestClient.get()
+                .uri("/api/v1/auth/sessions")
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/api/v1/auth/sessions"))
+                .withHeader("Authorization", equalTo("Bearer " + token))
+                .withHeader("X-User-Id", equalTo("user-1")));
+    }
+
+    private static String sign(String jti) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("rsa-1").build(),
+                new JWTClaimsSet.Builder()
+                        .subject("user-1")
+                        .jwtID(jti)
+                        .claim("role", "USER")
+                        .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                        .build());
+        jwt.sign(new RSASSASigner(rsa));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,76 @@
+package com.takapedia.apigateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(100, meterRegistry);
+    }
+
+    @Test
+    void put_thenGet_returnsVerifiedToken() {
+        VerifiedToken verified = new VerifiedToken("jti-1", "user-123", "USER", Instant.now().plusSeconds(60));
+
+        cache.put("token-a", verified);
+
+        assertThat(cache.get("token-a")).isEqualTo(verified);
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void expiredToken_isNotCached() {
+        cache.put("token-a", new VerifiedToken("jti-1", "user-123", "USER", Instant.now().minusSeconds(1)));
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void tokenWithoutExp_isNotCached() {
+        cache.put("token-a", new VerifiedToken("jti-1", "user-123", "USER", null));
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void entry_isEvictedAtTokenExp() throws InterruptedException {
+        cache.put("token-a", new VerifiedToken("jti-1", "user-123", "USER", Instant.now().plusMillis(50)));
+        assertThat(cache.get("token-a")).isNotNull();
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void hitsAndMisses_areReported() {
+        cache.put("token-a", new VerifiedToken("jti-1", "user-123", "USER", Instant.now().plusSeconds(60)));
+
+        cache.get("token-a");
+        cache.get("token-a");
+        cache.get("token-b");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gateway.jwt").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gateway.jwt").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void digest_doesNotContainRawToken() {
+        assertThat(VerifiedTokenCache.digest("header.payload.signature"))
+                .hasSize(64)
+                .doesNotContain("payload");
+    }
+}
@@ -1,37 +1,70 @@
 package com.takapedia.auth.config;
 
-import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.takapedia.auth.security.MultiAlgorithmKeySelector;
+import com.takapedia.auth.security.MultiAlgorithmVerifierFactory;
+import com.takapedia.auth.security.SigningKeyRing;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.oauth2.jwt.*;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
 public class JwkConfig {
 
     @Bean
-    public JWKSource<SecurityContext> jwkSource(RSAPublicKey publicKey, RSAPrivateKey privateKey) {
-        RSAKey rsaKey = new RSAKey.Builder(publicKey)
+    public SigningKeyRing signingKeyRing(RSAPublicKey publicKey, RSAPrivateKey privateKey,
+                                         JwtSigningProperties properties) throws IOException, ParseException {
+        List<JWK> jwks = new ArrayList<>();
+        jwks.add(new RSAKey.Builder(publicKey)
                 .privateKey(privateKey)
-                .keyID("takapedia-key-1")
-                .build();
-        return new ImmutableJWKSet<>(new JWKSet(rsaKey));
+                .keyID(properties.legacyKeyId())
+                .build());
+
+        Set<String> verifyOnly = new HashSet<>();
+        for (JwtSigningProperties.Key key : properties.keys()) {
+            try (InputStream is = key.jwk().getInputStream()) {
+                JWK jwk = JWK.parse(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+                jwks.add(jwk);
+                if (key.verifyOnly()) {
+                    verifyOnly.add(jwk.getKeyID());
+                }
+            }
+        }
+        return new SigningKeyRing(jwks, verifyOnly, properties.activeKeyId());
     }
 
+    // Hanya public key; dipakai decoder di bawah (JWKS sendiri dilayani dari JwksDocument)
     @Bean
-    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
-        return new NimbusJwtEncoder(jwkSource);
+    public JWKSource<SecurityContext> jwkSource(SigningKeyRing keyRing) {
+        return new ImmutableJWKSet<>(keyRing.publicJwkSet());
     }
 
-    // Decoder untuk Auth memvalidasi token-nya sendiri (endpoint /me)
+    // Decoder untuk Auth memvalidasi token-nya sendiri (endpoint /me), untuk semua algoritma di key ring
     @Bean
-    public JwtDecoder jwtDecoder(RSAPublicKey publicKey) {
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+    public JwtDecoder jwtDecoder(SigningKeyRing keyRing, JWKSource<SecurityContext> jwkSource) {
+        return NimbusJwtDecoder.withJwkSource(jwkSource)
+                .jwtProcessorCustomizer(processor -> {
+                    processor.setJWSKeySelector(new MultiAlgorithmKeySelector<>(keyRing.algorithms(), jwkSource));
+                    processor.setJWSVerifierFactory(new MultiAlgorithmVerifierFactory());
+                })
+                .build();
     }
-}
\ No newline at end of file
+}
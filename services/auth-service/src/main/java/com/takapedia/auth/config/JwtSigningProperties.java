@@ -0,0 +1,20 @@
+package com.takapedia.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+
+// jwt.private-key/public-key (PEM RSA) tetap jadi kunci legacyKeyId; kunci tambahan (RSA/EC/OKP)
+// dibaca dari file JWK JSON
+@ConfigurationProperties("jwt.signing")
+public record JwtSigningProperties(
+        @DefaultValue("takapedia-key-1") String legacyKeyId,
+        @DefaultValue("takapedia-key-1") String activeKeyId,
+        @DefaultValue List<Key> keys
+) {
+
+    public record Key(Resource jwk, @DefaultValue("false") boolean verifyOnly) {
+    }
+}
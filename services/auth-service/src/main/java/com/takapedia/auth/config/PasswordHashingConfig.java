@@ -0,0 +1,34 @@
+package com.takapedia.auth.config;
+
+import com.takapedia.auth.security.BoundedPasswordEncoder;
+import com.takapedia.auth.security.PasswordHashCalibrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(@Value("${auth.hashing.threads:0}") int threads,
+                                                  @Value("${auth.hashing.queue-capacity:0}") int queueCapacity,
+                                                  @Value("${auth.hashing.max-wait:2s}") Duration maxWait,
+                                                  @Value("${auth.hashing.algorithm:bcrypt}") String algorithm,
+                                                  @Value("${auth.hashing.target-latency:250ms}") Duration targetLatency,
+                                                  @Value("${auth.hashing.argon2.memory-kb:19456}") int argon2MemoryKb,
+                                                  @Value("${auth.hashing.argon2.parallelism:1}") int argon2Parallelism,
+                                                  MeterRegistry meterRegistry) {
+        // 0 → satu thread per core; lebih dari itu hanya menambah context switch untuk kerja CPU-bound
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        PasswordEncoder calibrated = PasswordHashCalibrator.calibrated(algorithm, targetLatency, argon2MemoryKb,
+                argon2Parallelism);
+        // 0 → diturunkan dari target-latency supaya request yang sudah diantrekan masih selesai dalam max-wait
+        int capacity = queueCapacity > 0 ? queueCapacity
+                : BoundedPasswordEncoder.queueCapacityFor(poolSize, targetLatency, maxWait);
+        return new BoundedPasswordEncoder(calibrated, poolSize, capacity, maxWait, meterRegistry);
+    }
+}
@@ -3,6 +3,9 @@ package com.takapedia.auth.controller;
 import com.takapedia.auth.dto.*;
 import com.takapedia.auth.entity.User;
 import com.takapedia.auth.service.AuthService;
+import com.takapedia.auth.service.IssuedTokens;
+import com.takapedia.auth.service.TokenRevocationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,14 +14,18 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, TokenRevocationService tokenRevocationService) {
         this.authService = authService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/register")
@@ -36,9 +43,29 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        String token = authService.login(request);
-        return ResponseEntity.ok(new LoginResponse(token));
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                               HttpServletRequest servletRequest) {
+        IssuedTokens tokens = authService.login(request, servletRequest.getRemoteAddr());
+        return ResponseEntity.ok(new LoginResponse(tokens.accessToken(), tokens.refreshToken()));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        IssuedTokens tokens = authService.refresh(request.refreshToken());
+        return ResponseEntity.ok(new LoginResponse(tokens.accessToken(), tokens.refreshToken()));
+    }
+
+    // Access token yang sedang dipakai dicabut (gateway menolaknya setelah sinkronisasi berikutnya),
+    // begitu juga family refresh token-nya supaya /refresh tidak bisa mencetak access token baru
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt jwt,
+                                       @RequestBody(required = false) LogoutRequest request) {
+        if (jwt == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        tokenRevocationService.revoke(jwt.getId(), jwt.getExpiresAt());
+        authService.logout(UUID.fromString(jwt.getSubject()), request != null ? request.refreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me")
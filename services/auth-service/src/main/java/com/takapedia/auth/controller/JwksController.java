@@ -1,28 +1,33 @@
 package com.takapedia.auth.controller;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.JWKMatcher;
-import com.nimbusds.jose.jwk.JWKSelector;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
+import com.takapedia.auth.security.JwksDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.time.Duration;
 
 @RestController
 public class JwksController {
 
-    private final JWKSource<SecurityContext> jwkSource;
+    private final JwksDocument document;
+    private final CacheControl cacheControl;
 
-    public JwksController(JWKSource<SecurityContext> jwkSource) {
-        this.jwkSource = jwkSource;
+    public JwksController(JwksDocument document,
+                          @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.document = document;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
-    @GetMapping("/.well-known/jwks.json")
-    public Map<String, Object> jwks() throws Exception {
-        JWKSet set = new JWKSet(jwkSource.get(
-                new JWKSelector(new JWKMatcher.Builder().build()), null));
-        return set.toJSONObject(true);   // true = public only
+    // If-None-Match yang cocok dijawab 304 tanpa body oleh Spring MVC (ResponseEntity + ETag)
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(cacheControl)
+                .body(document.body());
     }
-}
\ No newline at end of file
+}
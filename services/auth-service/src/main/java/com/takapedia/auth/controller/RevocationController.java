@@ -0,0 +1,32 @@
+package com.takapedia.auth.controller;
+
+import com.takapedia.auth.dto.RevocationFeed;
+import com.takapedia.auth.dto.RevokeRequest;
+import com.takapedia.auth.service.TokenRevocationService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class RevocationController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public RevocationController(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    // Feed untuk gateway (tidak di-route ke publik): hanya jti acak yang sudah tidak berlaku
+    @GetMapping("/internal/revocations")
+    public ResponseEntity<RevocationFeed> changes(@RequestParam(defaultValue = "0") long after,
+                                                  @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(tokenRevocationService.changesSince(after, limit));
+    }
+
+    // Hanya ADMIN (lihat SecurityConfig), mis. untuk token yang diketahui bocor
+    @PostMapping("/api/v1/auth/admin/revocations")
+    public ResponseEntity<Void> revoke(@Valid @RequestBody RevokeRequest request) {
+        tokenRevocationService.revoke(request.jti(), request.expiresAt());
+        return ResponseEntity.noContent().build();
+    }
+}
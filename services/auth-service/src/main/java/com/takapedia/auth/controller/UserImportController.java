@@ -0,0 +1,35 @@
+package com.takapedia.auth.controller;
+
+import com.takapedia.auth.dto.ImportReport;
+import com.takapedia.auth.service.ImportFormat;
+import com.takapedia.auth.service.UserImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// Hanya ADMIN (lihat SecurityConfig). Body dibaca sebagai stream, jadi file jutaan baris tidak dimuat ke memori.
+@RestController
+@RequestMapping("/api/v1/auth/admin/users")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @PostMapping(value = "/import", consumes = {ImportFormat.NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream body) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset), 64 * 1024);
+        return ResponseEntity.ok(userImportService.importUsers(reader, ImportFormat.of(contentType)));
+    }
+}
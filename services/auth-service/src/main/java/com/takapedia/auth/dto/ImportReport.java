@@ -0,0 +1,14 @@
+package com.takapedia.auth.dto;
+
+import java.util.List;
+
+public record ImportReport(
+        long read,
+        long inserted,
+        long duplicates,
+        long rejected,
+        long elapsedMs,
+        long rowsPerSecond,
+        List<String> errors   // hanya sebagian pertama, supaya response tetap kecil
+) {
+}
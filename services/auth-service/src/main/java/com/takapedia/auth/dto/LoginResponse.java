@@ -2,9 +2,10 @@ package com.takapedia.auth.dto;
 
 public record LoginResponse(
         String accessToken,
-        String tokenType
+        String tokenType,
+        String refreshToken
 ) {
-    public LoginResponse(String accessToken) {
-        this(accessToken, "Bearer");
+    public LoginResponse(String accessToken, String refreshToken) {
+        this(accessToken, "Bearer", refreshToken);
     }
 }
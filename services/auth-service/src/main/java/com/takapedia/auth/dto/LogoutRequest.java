@@ -0,0 +1,7 @@
+package com.takapedia.auth.dto;
+
+public record LogoutRequest(
+        // Opsional; kosong → semua refresh token milik user dicabut
+        String refreshToken
+) {
+}
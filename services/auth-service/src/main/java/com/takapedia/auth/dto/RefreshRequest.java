@@ -0,0 +1,9 @@
+package com.takapedia.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank(message = "Refresh token wajib diisi")
+        String refreshToken
+) {
+}
@@ -0,0 +1,11 @@
+package com.takapedia.auth.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// cursor = seq terakhir di halaman ini; dipakai sebagai "after" pada request berikutnya
+public record RevocationFeed(long cursor, List<Entry> revoked) {
+
+    public record Entry(String jti, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.takapedia.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.Instant;
+
+public record RevokeRequest(
+        @NotBlank(message = "jti tidak boleh kosong")
+        String jti,
+
+        // Opsional; kosong → dianggap berlaku selama umur maksimum access token
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,30 @@
+package com.takapedia.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Jumlah gagal login gabungan semua instance, diisi LoginAttemptGuard secara periodik
+@Entity
+@Table(name = "login_failures", indexes = {
+        @Index(name = "idx_login_failures_last_failure_at", columnList = "lastFailureAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class LoginFailure {
+
+    // "<scope>:<key>", mis. "account:adit@takapedia.com" atau "source:10.0.0.7"
+    @Id
+    @Column(length = 400)
+    private String id;
+
+    @Column(nullable = false)
+    private int failures;
+
+    @Column(nullable = false)
+    private Instant lastFailureAt;
+}
@@ -0,0 +1,46 @@
+package com.takapedia.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Hanya hash SHA-256 dari token yang disimpan; token asli cuma dipegang client
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "familyId")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false, unique = true, updatable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, updatable = false)
+    private UUID userId;
+
+    // Semua token hasil rotasi dari satu login berbagi family; reuse → seluruh family dicabut
+    @Column(nullable = false, updatable = false)
+    private UUID familyId;
+
+    @Column(nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant usedAt;
+
+    private Instant revokedAt;
+}
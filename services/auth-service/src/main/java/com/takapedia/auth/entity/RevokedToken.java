@@ -0,0 +1,34 @@
+package com.takapedia.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// jti access token yang dicabut sebelum kedaluwarsa. seq naik monoton → gateway cukup menarik perubahan setelah seq terakhir.
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(updatable = false, nullable = false)
+    private Long seq;
+
+    @Column(nullable = false, unique = true, updatable = false, length = 64)
+    private String jti;
+
+    // Setelah lewat, token sudah ditolak karena exp sendiri; baris boleh dihapus
+    @Column(nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant revokedAt;
+}
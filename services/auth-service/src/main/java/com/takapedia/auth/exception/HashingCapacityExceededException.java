@@ -0,0 +1,17 @@
+package com.takapedia.auth.exception;
+
+import java.time.Duration;
+
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public HashingCapacityExceededException(Duration retryAfter) {
+        super("Server sedang sibuk, coba lagi nanti");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.takapedia.auth.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException() {
+        super("Refresh token tidak valid atau sudah kedaluwarsa");
+    }
+}
@@ -0,0 +1,33 @@
+package com.takapedia.auth.repository;
+
+import com.takapedia.auth.entity.LoginFailure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface LoginFailureRepository extends JpaRepository<LoginFailure, String> {
+
+    List<LoginFailure> findByLastFailureAtAfter(Instant since);
+
+    // Penambahan atomik di database, jadi delta dari beberapa instance tidak saling menimpa.
+    // Kegagalan terakhir di luar window → hitungan dimulai ulang.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update LoginFailure f
+               set f.failures = case when f.lastFailureAt < :windowStart then :delta else f.failures + :delta end,
+                   f.lastFailureAt = case when f.lastFailureAt < :lastFailureAt then :lastFailureAt else f.lastFailureAt end
+             where f.id = :id""")
+    int addFailures(@Param("id") String id, @Param("delta") int delta,
+                    @Param("lastFailureAt") Instant lastFailureAt, @Param("windowStart") Instant windowStart);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from LoginFailure f where f.lastFailureAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,52 @@
+package com.takapedia.auth.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Insert banyak user dalam satu statement multi-row. Email duplikat (sudah terdaftar atau dobel di file)
+// dilewati oleh unique constraint lewat ON CONFLICT DO NOTHING, tanpa findByEmail per baris.
+@Repository
+public class UserBulkWriter {
+
+    private static final String INSERT = "insert into users (id, email, password, role, created_at) values ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+    private static final String ON_CONFLICT = " on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Mengembalikan jumlah baris yang benar-benar ter-insert
+    public int insertIgnoringDuplicates(List<NewUser> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT.length() + users.size() * (ROW.length() + 1) + ON_CONFLICT.length())
+                .append(INSERT);
+        Object[] args = new Object[users.size() * 5];
+        int i = 0;
+        for (NewUser user : users) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW);
+            args[i++] = user.id();
+            args[i++] = user.email();
+            args[i++] = user.passwordHash();
+            args[i++] = user.role();
+            args[i++] = Timestamp.from(user.createdAt());
+        }
+        sql.append(ON_CONFLICT);
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    public record NewUser(UUID id, String email, String passwordHash, String role, Instant createdAt) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.takapedia.auth.security;
+
+import com.takapedia.auth.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hashing password (bcrypt) murni CPU-bound: dijalankan di executor seukuran core dengan antrean terbatas,
+// bukan di thread Tomcat. Antrean penuh → langsung 503, jadi endpoint ringan (/me, JWKS) tetap dapat thread.
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "matches")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("auth.password.hash.rejected");
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Jumlah operasi hashing yang menunggu di antrean")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Hanya parsing prefix hash, tidak perlu lewat executor
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Antrean sepanjang yang masih bisa selesai dalam maxWait: posisi ke-q selesai setelah (q / threads + 1) hash,
+    // jadi q <= threads × (maxWait / hashLatency − 1). Lebih panjang dari itu hanya menunda 503 yang pasti terjadi.
+    public static int queueCapacityFor(int threads, Duration hashLatency, Duration maxWait) {
+        long rounds = maxWait.toNanos() / Math.max(1, hashLatency.toNanos()) - 1;
+        return (int) Math.clamp(threads * rounds, 1, Integer.MAX_VALUE);
+    }
+
+    // Encoder asli tanpa antrean; untuk pekerjaan batch (import user) yang membawa executor sendiri
+    public PasswordEncoder unbounded() {
+        return delegate;
+    }
+
+    private <T> T submit(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingCapacityExceededException(maxWait);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Terlalu lama di antrean: batalkan supaya worker tidak menghitung hash yang tidak ditunggu lagi
+            future.cancel(false);
+            rejected.increment();
+            throw new HashingCapacityExceededException(maxWait);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing password terinterupsi", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Hashing password gagal", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,141 @@
+package com.takapedia.auth.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.impl.BaseJWSProvider;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+
+// EdDSA (Ed25519) memakai provider JDK; Ed25519Signer bawaan Nimbus butuh Google Tink yang tidak kita bawa
+public final class Ed25519 {
+
+    private static final String ALGORITHM = "Ed25519";
+    // Prefix DER tetap untuk kunci Ed25519 32 byte (RFC 8410)
+    private static final byte[] X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+    private static final byte[] PKCS8_PREFIX = HexFormat.of().parseHex("302e020100300506032b657004220420");
+    private static final int KEY_LENGTH = 32;
+
+    private Ed25519() {
+    }
+
+    public static PublicKey publicKey(OctetKeyPair jwk) throws JOSEException {
+        requireEd25519(jwk);
+        return decode(X509_PREFIX, jwk.getDecodedX(), true);
+    }
+
+    public static PrivateKey privateKey(OctetKeyPair jwk) throws JOSEException {
+        requireEd25519(jwk);
+        if (jwk.getD() == null) {
+            throw new JOSEException("OKP " + jwk.getKeyID() + " tidak punya private key");
+        }
+        return decode(PKCS8_PREFIX, jwk.getDecodedD(), false);
+    }
+
+    // KeyPair dari KeyPairGenerator.getInstance("Ed25519") → JWK; encoding JDK = prefix DER + 32 byte kunci
+    public static OctetKeyPair toJwk(KeyPair keyPair, String keyId) {
+        byte[] x = tail(keyPair.getPublic().getEncoded());
+        byte[] d = tail(keyPair.getPrivate().getEncoded());
+        return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                .d(Base64URL.encode(d))
+                .keyID(keyId)
+                .algorithm(JWSAlgorithm.EdDSA)
+                .build();
+    }
+
+    public static JWSSigner signer(OctetKeyPair jwk) throws JOSEException {
+        return new Signer(privateKey(jwk));
+    }
+
+    public static JWSVerifier verifier(PublicKey publicKey) {
+        return new Verifier(publicKey);
+    }
+
+    private static void requireEd25519(OctetKeyPair jwk) throws JOSEException {
+        if (!Curve.Ed25519.equals(jwk.getCurve())) {
+            throw new JOSEException("Curve OKP tidak didukung: " + jwk.getCurve());
+        }
+    }
+
+    private static <K> K decode(byte[] prefix, byte[] raw, boolean publicKey) throws JOSEException {
+        if (raw.length != KEY_LENGTH) {
+            throw new JOSEException("Panjang kunci Ed25519 harus " + KEY_LENGTH + " byte");
+        }
+        byte[] der = Arrays.copyOf(prefix, prefix.length + raw.length);
+        System.arraycopy(raw, 0, der, prefix.length, raw.length);
+        try {
+            KeyFactory factory = KeyFactory.getInstance(ALGORITHM);
+            @SuppressWarnings("unchecked")
+            K key = (K) (publicKey
+                    ? factory.generatePublic(new X509EncodedKeySpec(der))
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(der)));
+            return key;
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Kunci Ed25519 tidak valid", e);
+        }
+    }
+
+    private static byte[] tail(byte[] encoded) {
+        return Arrays.copyOfRange(encoded, encoded.length - KEY_LENGTH, encoded.length);
+    }
+
+    private static final class Signer extends BaseJWSProvider implements JWSSigner {
+
+        private final PrivateKey privateKey;
+
+        Signer(PrivateKey privateKey) {
+            super(Set.of(JWSAlgorithm.EdDSA));
+            this.privateKey = privateKey;
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            try {
+                // Signature tidak thread-safe; instance baru per token murah dibanding operasi RSA
+                Signature signature = Signature.getInstance(ALGORITHM);
+                signature.initSign(privateKey);
+                signature.update(signingInput);
+                return Base64URL.encode(signature.sign());
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Gagal sign Ed25519", e);
+            }
+        }
+    }
+
+    private static final class Verifier extends BaseJWSProvider implements JWSVerifier {
+
+        private final PublicKey publicKey;
+
+        Verifier(PublicKey publicKey) {
+            super(Set.of(JWSAlgorithm.EdDSA));
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+            try {
+                Signature verifier = Signature.getInstance(ALGORITHM);
+                verifier.initVerify(publicKey);
+                verifier.update(signingInput);
+                return verifier.verify(signature.decode());
+            } catch (GeneralSecurityException e) {
+                return false;
+            }
+        }
+    }
+}
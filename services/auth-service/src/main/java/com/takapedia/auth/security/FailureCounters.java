@@ -0,0 +1,182 @@
+package com.takapedia.auth.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hitungan gagal login per key (akun atau sumber) di memori. Dipecah per stripe dengan lock sendiri
+// supaya login paralel jarang berebut lock yang sama; tiap stripe LRU berkapasitas tetap,
+// jadi penyerang yang merotasi email/IP tidak bisa membuat memori tumbuh tanpa batas.
+final class FailureCounters {
+
+    private final Stripe[] stripes;
+    private final int threshold;
+    private final Duration baseLockout;
+    private final Duration maxLockout;
+    private final Duration window;
+
+    FailureCounters(int capacity, int stripeCount, int threshold, Duration baseLockout, Duration maxLockout,
+                    Duration window) {
+        this.threshold = threshold;
+        this.baseLockout = baseLockout;
+        this.maxLockout = maxLockout;
+        this.window = window;
+        int perStripe = Math.max(1, capacity / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    // Sisa waktu lockout; Duration.ZERO kalau key boleh mencoba
+    Duration lockedFor(String key, Instant now) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null || entry.lockedUntil == null || !entry.lockedUntil.isAfter(now)) {
+                return Duration.ZERO;
+            }
+            return Duration.between(now, entry.lockedUntil);
+        }
+    }
+
+    void recordFailure(String key, Instant now) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(key, k -> new Entry());
+            if (entry.lastFailureAt != null && entry.lastFailureAt.isBefore(now.minus(window))) {
+                entry.failures = 0;
+            }
+            entry.failures++;
+            entry.pending++;
+            entry.reset = false;
+            entry.lastFailureAt = now;
+            entry.lockedUntil = lockedUntil(entry.failures, now);
+        }
+    }
+
+    void reset(String key) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null) {
+                entry.failures = 0;
+                entry.pending = 0;
+                entry.lockedUntil = null;
+                entry.reset = true;
+            }
+        }
+    }
+
+    // Ambil perubahan lokal sejak sync terakhir (delta gagal atau reset) untuk dikirim ke store bersama
+    List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.forEach((key, entry) -> {
+                    if (entry.reset) {
+                        deltas.add(new Delta(key, 0, null));
+                        entry.reset = false;
+                    } else if (entry.pending > 0) {
+                        deltas.add(new Delta(key, entry.pending, entry.lastFailureAt));
+                        entry.pending = 0;
+                    }
+                });
+                stripe.entries.values().removeIf(entry -> entry.failures == 0 && entry.pending == 0);
+            }
+        }
+        return deltas;
+    }
+
+    // Kembalikan delta yang gagal dikirim; gagal baru sejak drain tetap dihitung terpisah di pending
+    void restore(Delta delta) {
+        Stripe stripe = stripeOf(delta.key());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(delta.key(), k -> new Entry());
+            if (delta.isReset()) {
+                // Gagal baru setelah reset sudah menggantikan reset ini
+                entry.reset = entry.pending == 0;
+            } else {
+                entry.pending += delta.failures();
+                if (entry.lastFailureAt == null || delta.lastFailureAt().isAfter(entry.lastFailureAt)) {
+                    entry.lastFailureAt = delta.lastFailureAt();
+                }
+            }
+        }
+    }
+
+    // Gabungkan hitungan global: gagal yang terjadi di instance lain ikut membuat key terkunci di sini
+    void merge(String key, int globalFailures, Instant lastFailureAt, Instant now) {
+        if (lastFailureAt.isBefore(now.minus(window))) {
+            return;
+        }
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(key, k -> new Entry());
+            // Delta yang belum terkirim belum termasuk di hitungan global
+            int failures = Math.max(entry.failures, globalFailures + entry.pending);
+            Instant last = entry.lastFailureAt == null || lastFailureAt.isAfter(entry.lastFailureAt)
+                    ? lastFailureAt : entry.lastFailureAt;
+            entry.failures = failures;
+            entry.lastFailureAt = last;
+            entry.lockedUntil = lockedUntil(failures, last);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    // Lockout progresif: mulai di threshold, berlipat dua tiap gagal berikutnya, dibatasi maxLockout
+    private Instant lockedUntil(int failures, Instant lastFailureAt) {
+        if (failures < threshold) {
+            return null;
+        }
+        int doublings = Math.min(failures - threshold, 30);
+        Duration lockout = baseLockout.multipliedBy(1L << doublings);
+        return lastFailureAt.plus(lockout.compareTo(maxLockout) > 0 ? maxLockout : lockout);
+    }
+
+    private Stripe stripeOf(String key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    record Delta(String key, int failures, Instant lastFailureAt) {
+
+        boolean isReset() {
+            return lastFailureAt == null;
+        }
+    }
+
+    private static final class Entry {
+        int failures;
+        int pending;
+        boolean reset;
+        Instant lastFailureAt;
+        Instant lockedUntil;
+    }
+
+    private static final class Stripe {
+
+        private final Map<String, Entry> entries;
+
+        Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
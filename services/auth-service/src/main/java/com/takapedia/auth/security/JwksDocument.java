@@ -0,0 +1,41 @@
+package com.takapedia.auth.security;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// JWKS diserialisasi sekali per key ring (key set hanya berubah saat konfigurasi kunci berubah),
+// jadi endpoint cukup menulis byte yang sama ke setiap poller
+@Component
+public class JwksDocument {
+
+    private final byte[] body;
+    private final String etag;
+
+    public JwksDocument(SigningKeyRing keyRing) {
+        this.body = keyRing.publicJwkSet().toString(true).getBytes(StandardCharsets.UTF_8);
+        this.etag = etagOf(body);
+    }
+
+    // Tidak disalin per request; hanya ditulis apa adanya ke response
+    public byte[] body() {
+        return body;
+    }
+
+    // Strong ETag dari isi dokumen: semua instance auth-service dengan key set sama menghasilkan ETag sama
+    public String etag() {
+        return etag;
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
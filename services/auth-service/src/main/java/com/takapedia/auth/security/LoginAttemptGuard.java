@@ -0,0 +1,183 @@
+package com.takapedia.auth.security;
+
+import com.takapedia.auth.entity.LoginFailure;
+import com.takapedia.auth.exception.LoginThrottledException;
+import com.takapedia.auth.repository.LoginFailureRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+// Short-circuit credential stuffing: akun atau sumber (IP) yang sudah melewati batas gagal langsung ditolak
+// sebelum query user dan bcrypt, jadi biaya CPU serangan tidak lagi ikut naik dengan laju request penyerang.
+// Hitungan disimpan di memori dan disinkronkan antar instance lewat tabel login_failures secara periodik.
+@Component
+public class LoginAttemptGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginAttemptGuard.class);
+
+    private static final String ACCOUNT = "account";
+    private static final String SOURCE = "source";
+
+    private final LoginFailureRepository loginFailureRepository;
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration syncInterval;
+    private final FailureCounters accounts;
+    private final FailureCounters sources;
+    private final Clock clock;
+    private final Counter accountRejected;
+    private final Counter sourceRejected;
+    private final Counter failures;
+    private Instant lastPull = Instant.EPOCH;
+
+    @Autowired
+    public LoginAttemptGuard(LoginFailureRepository loginFailureRepository,
+                             @Value("${auth.login-guard.enabled:true}") boolean enabled,
+                             @Value("${auth.login-guard.account-threshold:5}") int accountThreshold,
+                             @Value("${auth.login-guard.source-threshold:50}") int sourceThreshold,
+                             @Value("${auth.login-guard.base-lockout:30s}") Duration baseLockout,
+                             @Value("${auth.login-guard.max-lockout:15m}") Duration maxLockout,
+                             @Value("${auth.login-guard.window:15m}") Duration window,
+                             @Value("${auth.login-guard.capacity:100000}") int capacity,
+                             @Value("${auth.login-guard.sync-interval:5s}") Duration syncInterval,
+                             MeterRegistry meterRegistry) {
+        this(loginFailureRepository, enabled, accountThreshold, sourceThreshold, baseLockout, maxLockout, window,
+                capacity, syncInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    LoginAttemptGuard(LoginFailureRepository loginFailureRepository, boolean enabled, int accountThreshold,
+                      int sourceThreshold, Duration baseLockout, Duration maxLockout, Duration window, int capacity,
+                      Duration syncInterval, MeterRegistry meterRegistry, Clock clock) {
+        this.loginFailureRepository = loginFailureRepository;
+        this.enabled = enabled;
+        this.window = window;
+        this.syncInterval = syncInterval;
+        this.clock = clock;
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4);
+        this.accounts = new FailureCounters(capacity, stripes, accountThreshold, baseLockout, maxLockout, window);
+        this.sources = new FailureCounters(capacity, stripes, sourceThreshold, baseLockout, maxLockout, window);
+
+        this.accountRejected = meterRegistry.counter("auth.login.rejected", "scope", ACCOUNT);
+        this.sourceRejected = meterRegistry.counter("auth.login.rejected", "scope", SOURCE);
+        this.failures = meterRegistry.counter("auth.login.failures");
+        Gauge.builder("auth.login.guard.entries", accounts, FailureCounters::size)
+                .tag("scope", ACCOUNT)
+                .description("Jumlah akun yang sedang dilacak kegagalan loginnya")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.guard.entries", sources, FailureCounters::size)
+                .tag("scope", SOURCE)
+                .register(meterRegistry);
+    }
+
+    // source boleh null (mis. dipanggil di luar request HTTP) → hanya batas per akun yang berlaku
+    public void check(String email, String source) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        Duration sourceLock = source != null ? sources.lockedFor(source, now) : Duration.ZERO;
+        if (!sourceLock.isZero()) {
+            sourceRejected.increment();
+            throw new LoginThrottledException(sourceLock);
+        }
+        Duration accountLock = accounts.lockedFor(accountKey(email), now);
+        if (!accountLock.isZero()) {
+            accountRejected.increment();
+            throw new LoginThrottledException(accountLock);
+        }
+    }
+
+    public void recordFailure(String email, String source) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        failures.increment();
+        accounts.recordFailure(accountKey(email), now);
+        if (source != null) {
+            sources.recordFailure(source, now);
+        }
+    }
+
+    // Login sukses membersihkan hitungan akun; hitungan sumber dibiarkan (satu IP bisa mencoba banyak akun)
+    public void recordSuccess(String email) {
+        if (enabled) {
+            accounts.reset(accountKey(email));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-guard.sync-interval:5s}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        Instant windowStart = now.minus(window);
+        try {
+            push(ACCOUNT, accounts, windowStart);
+            push(SOURCE, sources, windowStart);
+
+            // Tumpang tindih satu interval supaya update yang commit bersamaan dengan pull sebelumnya tidak terlewat
+            Instant since = lastPull.minus(syncInterval);
+            for (LoginFailure row : loginFailureRepository.findByLastFailureAtAfter(since)) {
+                String id = row.getId();
+                int separator = id.indexOf(':');
+                FailureCounters counters = ACCOUNT.equals(id.substring(0, separator)) ? accounts : sources;
+                counters.merge(id.substring(separator + 1), row.getFailures(), row.getLastFailureAt(), now);
+            }
+            lastPull = now;
+            loginFailureRepository.deleteExpired(windowStart);
+        } catch (RuntimeException e) {
+            // Store bersama tidak tersedia: guard tetap jalan dengan hitungan lokal
+            log.warn("Sinkronisasi login_failures gagal: {}", e.getMessage());
+        }
+    }
+
+    private void push(String scope, FailureCounters counters, Instant windowStart) {
+        List<FailureCounters.Delta> deltas = counters.drain();
+        for (int i = 0; i < deltas.size(); i++) {
+            try {
+                push(scope + ":" + deltas.get(i).key(), deltas.get(i), windowStart);
+            } catch (RuntimeException e) {
+                // Delta yang sudah di-drain tapi belum tersimpan dikembalikan, dikirim lagi di sync berikutnya
+                deltas.subList(i, deltas.size()).forEach(counters::restore);
+                throw e;
+            }
+        }
+    }
+
+    private void push(String id, FailureCounters.Delta delta, Instant windowStart) {
+        if (delta.isReset()) {
+            loginFailureRepository.deleteById(id);
+        } else if (loginFailureRepository.addFailures(id, delta.failures(), delta.lastFailureAt(),
+                windowStart) == 0) {
+            LoginFailure row = new LoginFailure();
+            row.setId(id);
+            row.setFailures(delta.failures());
+            row.setLastFailureAt(delta.lastFailureAt());
+            try {
+                loginFailureRepository.save(row);
+            } catch (DataIntegrityViolationException e) {
+                // Instance lain lebih dulu membuat baris yang sama: tambahkan ke baris itu
+                loginFailureRepository.addFailures(id, delta.failures(), delta.lastFailureAt(), windowStart);
+            }
+        }
+    }
+
+    private static String accountKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,48 @@
+package com.takapedia.auth.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.HashSet;
+import java.util.Set;
+
+// RS256/ES256 lewat factory bawaan Nimbus, EdDSA lewat verifier JDK (lihat Ed25519)
+public class MultiAlgorithmVerifierFactory implements JWSVerifierFactory {
+
+    private final DefaultJWSVerifierFactory delegate = new DefaultJWSVerifierFactory();
+    private final Set<JWSAlgorithm> supported;
+
+    public MultiAlgorithmVerifierFactory() {
+        Set<JWSAlgorithm> algorithms = new HashSet<>(DefaultJWSVerifierFactory.SUPPORTED_ALGORITHMS);
+        algorithms.add(JWSAlgorithm.EdDSA);
+        this.supported = Set.copyOf(algorithms);
+    }
+
+    @Override
+    public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+        if (JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            if (!(key instanceof PublicKey publicKey)) {
+                throw new JOSEException("Kunci EdDSA harus public key");
+            }
+            return Ed25519.verifier(publicKey);
+        }
+        return delegate.createJWSVerifier(header, key);
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return supported;
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return delegate.getJCAContext();
+    }
+}
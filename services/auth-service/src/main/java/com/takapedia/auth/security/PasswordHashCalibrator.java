@@ -0,0 +1,97 @@
+package com.takapedia.auth.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// Work factor ditentukan saat startup dari latency target di hardware yang sedang jalan,
+// bukan angka default yang bisa terlalu murah (atau terlalu mahal) untuk mesin produksi
+public final class PasswordHashCalibrator {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    static final int BCRYPT_MIN_COST = 10;
+    static final int BCRYPT_MAX_COST = 16;
+    static final int ARGON2_MIN_ITERATIONS = 2;
+    static final int ARGON2_MAX_ITERATIONS = 10;
+
+    // Parameter argon2id rekomendasi OWASP: salt 16 byte, hash 32 byte
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private PasswordHashCalibrator() {
+    }
+
+    // Encoder untuk hash baru = algoritma terpilih; hash lama (bcrypt tanpa prefix {id}) tetap bisa diverifikasi
+    public static DelegatingPasswordEncoder calibrated(String algorithm, Duration target, int argon2MemoryKb,
+                                                       int argon2Parallelism) {
+        // Hanya algoritma untuk hash baru yang dikalibrasi; yang lain cukup bisa memverifikasi hash lama
+        BCryptPasswordEncoder bcrypt = bcrypt(BCRYPT_MIN_COST);
+        Argon2PasswordEncoder argon2 = argon2(argon2MemoryKb, argon2Parallelism, ARGON2_MIN_ITERATIONS);
+        String idForEncode = switch (algorithm) {
+            case BCRYPT -> {
+                bcrypt = bcrypt(calibrate(target, BCRYPT_MIN_COST, BCRYPT_MAX_COST,
+                        PasswordHashCalibrator::bcrypt, true));
+                yield BCRYPT;
+            }
+            case ARGON2 -> {
+                argon2 = argon2(argon2MemoryKb, argon2Parallelism, calibrate(target, ARGON2_MIN_ITERATIONS,
+                        ARGON2_MAX_ITERATIONS, iterations -> argon2(argon2MemoryKb, argon2Parallelism, iterations),
+                        false));
+                yield ARGON2;
+            }
+            default -> throw new IllegalStateException("auth.hashing.algorithm tidak dikenal: " + algorithm);
+        };
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode,
+                Map.of(BCRYPT, bcrypt, ARGON2, argon2));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    public static BCryptPasswordEncoder bcrypt(int cost) {
+        return new BCryptPasswordEncoder(cost);
+    }
+
+    public static Argon2PasswordEncoder argon2(int memoryKb, int parallelism, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKb, iterations);
+    }
+
+    // Parameter terbesar yang satu hash-nya masih <= target. bcrypt: tiap kenaikan cost = 2x waktu,
+    // jadi cukup ukur sekali di cost minimum; argon2: waktu kira-kira linear terhadap iterasi.
+    static int calibrate(Duration target, int min, int max, IntFunction<PasswordEncoder> factory,
+                         boolean exponential) {
+        PasswordEncoder encoder = factory.apply(min);
+        encoder.encode(SAMPLE_PASSWORD); // warm-up JIT
+        long nanos = measure(encoder);
+        double ratio = (double) target.toNanos() / Math.max(1, nanos);
+
+        int steps = exponential
+                ? (int) Math.floor(Math.log(ratio) / Math.log(2))
+                : (int) Math.floor(ratio * min) - min;
+        int chosen = Math.clamp(min + (long) steps, min, max);
+        log.info("Password hashing dikalibrasi: {} per hash di parameter {}, dipilih {} (target {} ms)",
+                Duration.ofNanos(nanos), min, chosen, target.toMillis());
+        return chosen;
+    }
+
+    private static long measure(PasswordEncoder encoder) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
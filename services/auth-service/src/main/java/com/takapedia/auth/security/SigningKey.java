@@ -0,0 +1,23 @@
+package com.takapedia.auth.security;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jwk.JWK;
+
+// Satu kunci di key ring. signer/header dibuat sekali saat startup; null → kunci verification-only
+public record SigningKey(String keyId, JWSAlgorithm algorithm, JWK publicJwk, JWSSigner signer, JWSHeader header) {
+
+    static SigningKey of(JWK jwk, JWSAlgorithm algorithm, JWSSigner signer) {
+        JWSHeader header = signer == null ? null : new JWSHeader.Builder(algorithm)
+                .keyID(jwk.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build();
+        return new SigningKey(jwk.getKeyID(), algorithm, jwk.toPublicJWK(), signer, header);
+    }
+
+    public boolean canSign() {
+        return signer != null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.takapedia.auth.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Semua kunci yang dipublikasikan di JWKS: satu kunci aktif untuk sign token baru, sisanya hanya untuk
+// verifikasi (mis. kunci lama selama masa rotasi, sampai token yang ditandatanganinya kedaluwarsa)
+public class SigningKeyRing {
+
+    private final Map<String, SigningKey> keys;
+    private final SigningKey active;
+    private final JWKSet publicJwkSet;
+
+    public SigningKeyRing(List<JWK> jwks, Set<String> verificationOnly, String activeKeyId) {
+        Map<String, SigningKey> indexed = new LinkedHashMap<>();
+        List<JWK> publicKeys = new ArrayList<>();
+        for (JWK jwk : jwks) {
+            if (jwk.getKeyID() == null || indexed.containsKey(jwk.getKeyID())) {
+                throw new IllegalStateException("Setiap kunci JWT wajib punya kid unik: " + jwk.getKeyID());
+            }
+            JWSAlgorithm algorithm = algorithmOf(jwk);
+            JWSSigner signer = jwk.isPrivate() && !verificationOnly.contains(jwk.getKeyID())
+                    ? signerOf(jwk)
+                    : null;
+            SigningKey key = SigningKey.of(jwk, algorithm, signer);
+            indexed.put(key.keyId(), key);
+            // alg ikut dipublikasikan supaya verifier tidak perlu menebak dari kty
+            publicKeys.add(withAlgorithm(key.publicJwk(), algorithm));
+        }
+
+        SigningKey activeKey = indexed.get(activeKeyId);
+        if (activeKey == null || !activeKey.canSign()) {
+            throw new IllegalStateException("Kunci aktif " + activeKeyId + " tidak ada atau tidak punya private key");
+        }
+        this.keys = Map.copyOf(indexed);
+        this.active = activeKey;
+        this.publicJwkSet = new JWKSet(publicKeys);
+    }
+
+    public SigningKey active() {
+        return active;
+    }
+
+    public SigningKey get(String keyId) {
+        return keys.get(keyId);
+    }
+
+    public JWKSet publicJwkSet() {
+        return publicJwkSet;
+    }
+
+    public Set<JWSAlgorithm> algorithms() {
+        Set<JWSAlgorithm> algorithms = new LinkedHashSet<>();
+        keys.values().forEach(key -> algorithms.add(key.algorithm()));
+        return algorithms;
+    }
+
+    static JWSAlgorithm algorithmOf(JWK jwk) {
+        JWSAlgorithm inferred = switch (jwk) {
+            case RSAKey rsa -> JWSAlgorithm.RS256;
+            case ECKey ec when Curve.P_256.equals(ec.getCurve()) -> JWSAlgorithm.ES256;
+            case ECKey ec when Curve.P_384.equals(ec.getCurve()) -> JWSAlgorithm.ES384;
+            case ECKey ec when Curve.P_521.equals(ec.getCurve()) -> JWSAlgorithm.ES512;
+            case OctetKeyPair okp when Curve.Ed25519.equals(okp.getCurve()) -> JWSAlgorithm.EdDSA;
+            default -> throw new IllegalStateException("Tipe kunci tidak didukung untuk kid " + jwk.getKeyID());
+        };
+        if (jwk.getAlgorithm() == null) {
+            return inferred;
+        }
+        JWSAlgorithm declared = JWSAlgorithm.parse(jwk.getAlgorithm().getName());
+        // RSA boleh RS*/PS*; EC dan OKP ditentukan oleh curve-nya
+        boolean compatible = jwk instanceof RSAKey
+                ? JWSAlgorithm.Family.RSA.contains(declared)
+                : declared.equals(inferred);
+        if (!compatible) {
+            throw new IllegalStateException("alg " + declared + " tidak cocok dengan kunci " + jwk.getKeyID());
+        }
+        return declared;
+    }
+
+    private static JWSSigner signerOf(JWK jwk) {
+        try {
+            return switch (jwk) {
+                case RSAKey rsa -> new RSASSASigner(rsa);
+                case ECKey ec -> new ECDSASigner(ec);
+                case OctetKeyPair okp -> Ed25519.signer(okp);
+                default -> throw new IllegalStateException("Tipe kunci tidak didukung untuk kid " + jwk.getKeyID());
+            };
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Gagal membuat signer untuk kid " + jwk.getKeyID(), e);
+        }
+    }
+
+    private static JWK withAlgorithm(JWK jwk, JWSAlgorithm algorithm) {
+        return switch (jwk) {
+            case RSAKey rsa -> new RSAKey.Builder(rsa).algorithm(algorithm).build();
+            case ECKey ec -> new ECKey.Builder(ec).algorithm(algorithm).build();
+            case OctetKeyPair okp -> new OctetKeyPair.Builder(okp).algorithm(algorithm).build();
+            default -> jwk;
+        };
+    }
+}
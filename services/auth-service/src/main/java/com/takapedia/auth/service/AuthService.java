@@ -4,12 +4,16 @@ import com.takapedia.auth.dto.LoginRequest;
 import com.takapedia.auth.dto.RegisterRequest;
 import com.takapedia.auth.entity.User;
 import com.takapedia.auth.exception.EmailAlreadyExistsException;
+import com.takapedia.auth.exception.HashingCapacityExceededException;
 import com.takapedia.auth.exception.InvalidCredentialsException;
+import com.takapedia.auth.exception.InvalidRefreshTokenException;
 import com.takapedia.auth.repository.UserRepository;
+import com.takapedia.auth.security.LoginAttemptGuard;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -17,13 +21,19 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;   // tambah
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptGuard loginAttemptGuard;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       JwtService jwtService) {   // tambah
+                       JwtService jwtService,   // tambah
+                       RefreshTokenService refreshTokenService,
+                       LoginAttemptGuard loginAttemptGuard) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;   // tambah
+        this.refreshTokenService = refreshTokenService;
+        this.loginAttemptGuard = loginAttemptGuard;
     }
 
     public User register(RegisterRequest registerRequest) {
@@ -38,14 +48,45 @@ public class AuthService {
         return userRepository.save(user);
     }
 
-    public String login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.email())
-                .orElseThrow(InvalidCredentialsException::new);
+    // source = alamat client; akun/sumber yang terkunci ditolak sebelum query user dan bcrypt
+    public IssuedTokens login(LoginRequest request, String source) {
+        loginAttemptGuard.check(request.email(), source);
 
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
+        User user = userRepository.findByEmail(request.email()).orElse(null);
+        if (user == null || !passwordEncoder.matches(request.password(), user.getPassword())) {
+            loginAttemptGuard.recordFailure(request.email(), source);
             throw new InvalidCredentialsException();
         }
+        loginAttemptGuard.recordSuccess(request.email());
+        rehashIfStale(user, request.password());
 
-        return jwtService.generateToken(user);   // ← generate token, bukan null
+        return new IssuedTokens(
+                jwtService.generateToken(user),   // ← generate token, bukan null
+                refreshTokenService.issue(user.getId()));
+    }
+
+    // Access token baru tanpa verifikasi password: cukup satu lookup hash + rotasi refresh token
+    public IssuedTokens refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(InvalidRefreshTokenException::new);
+        return new IssuedTokens(jwtService.generateToken(user), rotation.refreshToken());
+    }
+
+    public void logout(UUID userId, String refreshToken) {
+        refreshTokenService.revoke(userId, refreshToken);
+    }
+
+    // Password asli hanya tersedia saat login: kesempatan untuk naikkan hash lama ke algoritma/cost terbaru
+    private void rehashIfStale(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+        } catch (HashingCapacityExceededException e) {
+            // Sedang sibuk: login tetap sukses, upgrade dicoba lagi di login berikutnya
+        }
     }
 }
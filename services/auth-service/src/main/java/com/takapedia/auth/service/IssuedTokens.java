@@ -0,0 +1,7 @@
+package com.takapedia.auth.service;
+
+public record IssuedTokens(
+        String accessToken,
+        String refreshToken
+) {
+}
@@ -1,38 +1,51 @@
 package com.takapedia.auth.service;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import com.takapedia.auth.entity.User;
-import org.springframework.security.oauth2.jwt.*;
+import com.takapedia.auth.security.SigningKey;
+import com.takapedia.auth.security.SigningKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    private final JwtEncoder jwtEncoder;
+    private final SigningKeyRing keyRing;
     private final long expirationMs;
 
-    public JwtService(JwtEncoder jwtEncoder,
-                      @org.springframework.beans.factory.annotation.Value("${jwt.expiration-ms}") long expirationMs) {
-        this.jwtEncoder = jwtEncoder;
+    public JwtService(SigningKeyRing keyRing,
+                      @Value("${jwt.expiration-ms}") long expirationMs) {
+        this.keyRing = keyRing;
         this.expirationMs = expirationMs;
     }
 
     public String generateToken(User user) {
         Instant now = Instant.now();
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .id(UUID.randomUUID().toString())
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
                 .subject(String.valueOf(user.getId()))
                 .claim("role", user.getRole())
-                .issuedAt(now)
-                .expiresAt(now.plus(expirationMs, ChronoUnit.MILLIS))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(expirationMs, ChronoUnit.MILLIS)))
                 .build();
 
-        // Header dengan kid — WAJIB untuk JWKS
-        JwsHeader header = JwsHeader.with(() -> "RS256").keyId("takapedia-key-1").build();
-
-        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        // Signer dan header (dengan kid — WAJIB untuk JWKS) sudah dibuat sekali per kunci,
+        // tanpa seleksi JWK dan pembuatan signer baru di setiap login
+        SigningKey key = keyRing.active();
+        SignedJWT jwt = new SignedJWT(key.header(), claims);
+        try {
+            jwt.sign(key.signer());
+        } catch (JOSEException e) {
+            throw new JwtEncodingException("Gagal menandatangani token dengan kid " + key.keyId(), e);
+        }
+        return jwt.serialize();
     }
-}
\ No newline at end of file
+}
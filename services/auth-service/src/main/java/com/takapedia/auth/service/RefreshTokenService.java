@@ -0,0 +1,103 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.entity.RefreshToken;
+import com.takapedia.auth.exception.InvalidRefreshTokenException;
+import com.takapedia.auth.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+// Refresh token opaque (256 bit acak) yang dirotasi setiap dipakai. Token berentropi tinggi cukup
+// di-hash dengan SHA-256 (bukan bcrypt), jadi refresh jauh lebih murah daripada login ulang.
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh.ttl:14d}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+    }
+
+    @Transactional
+    public String issue(UUID userId) {
+        return issue(userId, UUID.randomUUID());
+    }
+
+    // Token lama ditandai terpakai dan diganti token baru di family yang sama.
+    // Token yang sudah pernah dipakai datang lagi → kemungkinan dicuri: seluruh family dicabut.
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+        Instant now = Instant.now();
+
+        if (current.getRevokedAt() != null || !current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException();
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException();
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    // Logout: refresh token milik user ini → cabut family-nya saja, sesi di perangkat lain tetap jalan.
+    // Tanpa refresh token (atau bukan milik user ini) → cabut semua family user, supaya /refresh
+    // tidak bisa mencetak access token baru setelah logout.
+    @Transactional
+    public void revoke(UUID userId, String rawToken) {
+        Instant now = Instant.now();
+        Optional<RefreshToken> token = rawToken == null ? Optional.empty()
+                : refreshTokenRepository.findByTokenHash(hash(rawToken)).filter(t -> t.getUserId().equals(userId));
+        if (token.isPresent()) {
+            refreshTokenRepository.revokeFamily(token.get().getFamilyId(), now);
+        } else {
+            refreshTokenRepository.revokeAllForUser(userId, now);
+        }
+    }
+
+    private String issue(UUID userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(ttl));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    public record Rotation(UUID userId, String refreshToken) {
+    }
+}
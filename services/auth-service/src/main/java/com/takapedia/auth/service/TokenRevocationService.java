@@ -0,0 +1,63 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.dto.RevocationFeed;
+import com.takapedia.auth.entity.RevokedToken;
+import com.takapedia.auth.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Pencatatan jti yang dicabut. Pemeriksaan per request tidak terjadi di sini: gateway menarik feed ini
+// secara inkremental dan mengecek di memori (lihat RevocationList di api-gateway).
+@Service
+public class TokenRevocationService {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long maxTokenLifetimeMs;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.expiration-ms}") long maxTokenLifetimeMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.maxTokenLifetimeMs = maxTokenLifetimeMs;
+    }
+
+    // Idempoten: mencabut jti yang sama dua kali tidak menambah baris
+    public void revoke(String jti, Instant expiresAt) {
+        Instant now = Instant.now();
+        Instant until = expiresAt != null ? expiresAt : now.plus(maxTokenLifetimeMs, ChronoUnit.MILLIS);
+        if (!until.isAfter(now) || revokedTokenRepository.existsByJti(jti)) {
+            return;
+        }
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(jti);
+        revoked.setExpiresAt(until);
+        revoked.setRevokedAt(now);
+        try {
+            revokedTokenRepository.save(revoked);
+        } catch (DataIntegrityViolationException e) {
+            // Dicabut bersamaan oleh request lain
+        }
+    }
+
+    public RevocationFeed changesSince(long after, int limit) {
+        List<RevokedToken> page = revokedTokenRepository.findBySeqGreaterThanAndExpiresAtAfterOrderBySeqAsc(
+                after, Instant.now(), Limit.of(Math.clamp(limit, 1, MAX_PAGE_SIZE)));
+        long cursor = page.isEmpty() ? after : page.getLast().getSeq();
+        return new RevocationFeed(cursor, page.stream()
+                .map(t -> new RevocationFeed.Entry(t.getJti(), t.getExpiresAt()))
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:10m}")
+    public void purgeExpired() {
+        revokedTokenRepository.deleteExpired(Instant.now());
+    }
+}
@@ -0,0 +1,126 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.exception.InvalidImportFileException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Membaca file import baris per baris tanpa memuat seluruh isi ke memori.
+// NDJSON: {"email": ..., "password": ...} atau {"email": ..., "passwordHash": ...} per baris.
+// CSV: baris pertama header berisi kolom email, password, dan/atau passwordHash.
+final class UserImportReader {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+    private int emailColumn = -1;
+    private int passwordColumn = -1;
+    private int passwordHashColumn = -1;
+
+    UserImportReader(BufferedReader reader, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // null → akhir file
+    Line next() throws IOException {
+        String raw;
+        while ((raw = reader.readLine()) != null) {
+            lineNumber++;
+            if (raw.isBlank()) {
+                continue;
+            }
+            if (format == ImportFormat.NDJSON) {
+                return parseJson(raw);
+            }
+            if (emailColumn < 0) {
+                parseHeader(raw);
+                continue;
+            }
+            return parseCsv(raw);
+        }
+        return null;
+    }
+
+    private Line parseJson(String raw) {
+        try {
+            return new Line(lineNumber, objectMapper.readValue(raw, UserImportRecord.class), null);
+        } catch (JacksonException e) {
+            return new Line(lineNumber, null, "JSON tidak valid");
+        }
+    }
+
+    private void parseHeader(String raw) {
+        List<String> columns = splitCsv(raw);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "email" -> emailColumn = i;
+                case "password" -> passwordColumn = i;
+                case "passwordhash", "password_hash" -> passwordHashColumn = i;
+                default -> {
+                    // kolom lain diabaikan
+                }
+            }
+        }
+        if (emailColumn < 0) {
+            throw new InvalidImportFileException("Header CSV harus punya kolom email");
+        }
+    }
+
+    private Line parseCsv(String raw) {
+        List<String> fields = splitCsv(raw);
+        if (fields.size() <= emailColumn) {
+            return new Line(lineNumber, null, "jumlah kolom tidak sesuai header");
+        }
+        return new Line(lineNumber, new UserImportRecord(
+                fields.get(emailColumn),
+                field(fields, passwordColumn),
+                field(fields, passwordHashColumn)), null);
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    // RFC 4180 sederhana: field boleh diapit tanda kutip, "" di dalamnya berarti satu tanda kutip
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    record Line(long number, UserImportRecord record, String error) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.takapedia.auth.service;
+
+// Satu user dari file import: password mentah, atau passwordHash yang sudah di-hash sistem asal
+public record UserImportRecord(String email, String password, String passwordHash) {
+}
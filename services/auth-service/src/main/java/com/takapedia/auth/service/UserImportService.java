@@ -0,0 +1,202 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.dto.ImportReport;
+import com.takapedia.auth.repository.UserBulkWriter;
+import com.takapedia.auth.repository.UserBulkWriter.NewUser;
+import com.takapedia.auth.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// Import user massal (migrasi dari sistem partner). Pipeline per batch:
+// baca & validasi → hash paralel (hanya untuk password mentah) → satu insert multi-row.
+// Hashing batch berikutnya berjalan selagi batch sebelumnya ditulis ke database.
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    // Format yang bisa diverifikasi DelegatingPasswordEncoder; bcrypt tanpa prefix jatuh ke matcher default
+    private static final Pattern SUPPORTED_HASH = Pattern.compile("^(\\{bcrypt}|\\{argon2}|\\$2[aby]\\$).+");
+
+    private final UserBulkWriter userBulkWriter;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int hashThreads;
+    private final long progressInterval;
+    private final Counter insertedRows;
+    private final Counter duplicateRows;
+    private final Counter rejectedRows;
+
+    public UserImportService(UserBulkWriter userBulkWriter,
+                             PasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             @Value("${auth.import.batch-size:1000}") int batchSize,
+                             @Value("${auth.import.hash-threads:0}") int hashThreads,
+                             @Value("${auth.import.progress-interval:50000}") long progressInterval,
+                             MeterRegistry meterRegistry) {
+        this.userBulkWriter = userBulkWriter;
+        // Import punya pool hashing sendiri: jangan memenuhi antrean bounded milik login
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.unbounded() : passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.hashThreads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.progressInterval = progressInterval;
+        this.insertedRows = meterRegistry.counter("auth.import.rows", "result", "inserted");
+        this.duplicateRows = meterRegistry.counter("auth.import.rows", "result", "duplicate");
+        this.rejectedRows = meterRegistry.counter("auth.import.rows", "result", "rejected");
+    }
+
+    public ImportReport importUsers(BufferedReader input, ImportFormat format) {
+        UserImportReader reader = new UserImportReader(input, format, objectMapper);
+        Progress progress = new Progress(System.nanoTime());
+
+        AtomicInteger sequence = new AtomicInteger();
+        try (ExecutorService hashers = Executors.newFixedThreadPool(hashThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        })) {
+            CompletableFuture<List<NewUser>> previous = null;
+            List<UserImportReader.Line> batch;
+            while (!(batch = readBatch(reader)).isEmpty()) {
+                CompletableFuture<List<NewUser>> current = prepare(batch, hashers, progress);
+                if (previous != null) {
+                    write(previous.join(), progress);
+                }
+                previous = current;
+            }
+            if (previous != null) {
+                write(previous.join(), progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gagal membaca file import", e);
+        }
+
+        ImportReport report = progress.report();
+        log.info("Import user selesai: {} dibaca, {} insert, {} duplikat, {} ditolak dalam {} ms ({} baris/detik)",
+                report.read(), report.inserted(), report.duplicates(), report.rejected(), report.elapsedMs(),
+                report.rowsPerSecond());
+        return report;
+    }
+
+    private List<UserImportReader.Line> readBatch(UserImportReader reader) throws IOException {
+        List<UserImportReader.Line> batch = new ArrayList<>(batchSize);
+        UserImportReader.Line line;
+        while (batch.size() < batchSize && (line = reader.next()) != null) {
+            batch.add(line);
+        }
+        return batch;
+    }
+
+    private CompletableFuture<List<NewUser>> prepare(List<UserImportReader.Line> batch, ExecutorService hashers,
+                                                     Progress progress) {
+        Instant now = Instant.now();
+        List<CompletableFuture<NewUser>> users = new ArrayList<>(batch.size());
+        for (UserImportReader.Line line : batch) {
+            progress.read++;
+            String error = line.error() != null ? line.error() : validate(line.record());
+            if (error != null) {
+                progress.reject(line.number(), error);
+                rejectedRows.increment();
+                continue;
+            }
+            UserImportRecord record = line.record();
+            String email = record.email().trim();
+            if (record.passwordHash() != null) {
+                users.add(CompletableFuture.completedFuture(
+                        new NewUser(newId(), email, record.passwordHash(), "USER", now)));
+            } else {
+                users.add(CompletableFuture.supplyAsync(() -> new NewUser(newId(), email,
+                        passwordEncoder.encode(record.password()), "USER", now), hashers));
+            }
+        }
+        return CompletableFuture.allOf(users.toArray(CompletableFuture[]::new))
+                .thenApply(done -> users.stream().map(CompletableFuture::join).toList());
+    }
+
+    // UUIDv7 seperti @UuidGenerator di entity User, supaya import massal tetap menulis ke ujung index PK
+    private static UUID newId() {
+        return UuidVersion7Strategy.INSTANCE.generateUuid(null);
+    }
+
+    private void write(List<NewUser> users, Progress progress) {
+        int inserted = userBulkWriter.insertIgnoringDuplicates(users);
+        progress.inserted += inserted;
+        progress.duplicates += users.size() - inserted;
+        insertedRows.increment(inserted);
+        duplicateRows.increment(users.size() - inserted);
+
+        if (progress.read / progressInterval > progress.lastLogged) {
+            progress.lastLogged = progress.read / progressInterval;
+            ImportReport snapshot = progress.report();
+            log.info("Import user: {} dibaca, {} insert, {} baris/detik",
+                    snapshot.read(), snapshot.inserted(), snapshot.rowsPerSecond());
+        }
+    }
+
+    private static String validate(UserImportRecord record) {
+        if (record == null || record.email() == null || !EMAIL.matcher(record.email().trim()).matches()) {
+            return "email tidak valid";
+        }
+        if (record.passwordHash() != null) {
+            return SUPPORTED_HASH.matcher(record.passwordHash()).matches() ? null : "format passwordHash tidak didukung";
+        }
+        if (record.password() == null || record.password().length() < MIN_PASSWORD_LENGTH) {
+            return "password minimal " + MIN_PASSWORD_LENGTH + " karakter";
+        }
+        return null;
+    }
+
+    private static final class Progress {
+
+        private final long startNanos;
+        private final List<String> errors = new ArrayList<>();
+        private long read;
+        private long inserted;
+        private long duplicates;
+        private long rejected;
+        private long lastLogged;
+
+        Progress(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void reject(long lineNumber, String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("baris " + lineNumber + ": " + error);
+            }
+        }
+
+        ImportReport report() {
+            long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            return new ImportReport(read, inserted, duplicates, rejected, elapsedMs, read * 1000 / elapsedMs,
+                    List.copyOf(errors));
+        }
+    }
+}
@@ -2,26 +2,39 @@ package com.takapedia.auth.controller;
 
 import com.takapedia.auth.config.SecurityConfig;
 import com.takapedia.auth.dto.LoginRequest;
+import com.takapedia.auth.dto.LogoutRequest;
+import com.takapedia.auth.dto.RefreshRequest;
 import com.takapedia.auth.dto.RegisterRequest;
 import com.takapedia.auth.entity.User;
 import com.takapedia.auth.exception.EmailAlreadyExistsException;
 import com.takapedia.auth.exception.InvalidCredentialsException;
+import com.takapedia.auth.exception.InvalidRefreshTokenException;
+import com.takapedia.auth.exception.LoginThrottledException;
 import com.takapedia.auth.service.AuthService;
+import com.takapedia.auth.service.IssuedTokens;
 import com.takapedia.auth.service.JwtService;
+import com.takapedia.auth.service.TokenRevocationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.ObjectMapper;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,6 +54,13 @@ public class AuthControllerTest {
     @MockitoBean
     private JwtService jwtService;
 
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    // SecurityConfig butuh decoder; JwkConfig tidak ikut di-load oleh @WebMvcTest
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
     @Test
     void shouldRegisterUserAndReturn201() throws Exception {
         RegisterRequest request = new RegisterRequest("adit@takapedia.com", "plainPassword123");
@@ -91,20 +111,80 @@ public class AuthControllerTest {
     @Test
     void shouldReturn200AndTokenWhenLoginValid() throws Exception {
         LoginRequest request = new LoginRequest("adit@takapedia.com", "plainPassword123");
-        when(authService.login(any(LoginRequest.class))).thenReturn("token.jwt.dummy");
+        when(authService.login(any(LoginRequest.class), any()))
+                .thenReturn(new IssuedTokens("token.jwt.dummy", "refresh.dummy"));
 
         mockMvc.perform(post("/api/v1/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accessToken").value("token.jwt.dummy"))
-                .andExpect(jsonPath("$.tokenType").value("Bearer"));
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh.dummy"));
+    }
+
+    @Test
+    void shouldReturn200AndRotatedTokensWhenRefreshValid() throws Exception {
+        when(authService.refresh("refresh.lama"))
+                .thenReturn(new IssuedTokens("token.jwt.baru", "refresh.baru"));
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("refresh.lama"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("token.jwt.baru"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh.baru"));
+    }
+
+    @Test
+    void shouldReturn401WhenRefreshTokenInvalid() throws Exception {
+        when(authService.refresh("dipakai.ulang"))
+                .thenThrow(new InvalidRefreshTokenException());
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("dipakai.ulang"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRejectRefreshAfterLogout() throws Exception {
+        UUID userId = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(900);
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .with(jwt().jwt(j -> j.subject(userId.toString()).jti("jti-1").expiresAt(expiresAt)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LogoutRequest("refresh.lama"))))
+                .andExpect(status().isNoContent());
+
+        // Access token dan family refresh token sama-sama dicabut
+        verify(tokenRevocationService).revoke("jti-1", expiresAt);
+        verify(authService).logout(userId, "refresh.lama");
+
+        when(authService.refresh("refresh.lama")).thenThrow(new InvalidRefreshTokenException());
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("refresh.lama"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRevokeAllRefreshTokensWhenLogoutHasNoBody() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .with(jwt().jwt(j -> j.subject(userId.toString()).jti("jti-2")
+                                .expiresAt(Instant.now().plusSeconds(900)))))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(userId, null);
     }
 
     @Test
     void shouldReturn401WhenCredentialsInvalid() throws Exception {
         LoginRequest request = new LoginRequest("adit@takapedia.com", "passwordSalah");
-        when(authService.login(any(LoginRequest.class)))
+        when(authService.login(any(LoginRequest.class), any()))
                 .thenThrow(new InvalidCredentialsException());
 
         mockMvc.perform(post("/api/v1/auth/login")
@@ -113,6 +193,19 @@ public class AuthControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void shouldReturn429WithRetryAfterWhenLoginLockedOut() throws Exception {
+        LoginRequest request = new LoginRequest("adit@takapedia.com", "passwordSalah");
+        when(authService.login(any(LoginRequest.class), any()))
+                .thenThrow(new LoginThrottledException(Duration.ofSeconds(30)));
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
     @Test
     void shouldReturn400WhenLoginEmailMalformed() throws Exception {
         LoginRequest request = new LoginRequest("bukan-email", "plainPassword123");
@@ -0,0 +1,83 @@
+package com.takapedia.auth.controller;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.takapedia.auth.security.JwksDocument;
+import com.takapedia.auth.security.SigningKeyRing;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwksControllerTest {
+
+    static JWK rsa;
+    static JWK ec;
+
+    JwksDocument document;
+    MockMvc mockMvc;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyID("takapedia-key-1").generate();
+        ec = new ECKeyGenerator(Curve.P_256).keyID("takapedia-ec-1").generate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        document = new JwksDocument(new SigningKeyRing(List.of(rsa, ec), Set.of(), "takapedia-key-1"));
+        mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(document, Duration.ofMinutes(5))).build();
+    }
+
+    @Test
+    void shouldServePublicKeysWithCachingHeaders() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", document.etag()))
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys.length()").value(2))
+                .andExpect(jsonPath("$.keys[0].kid").value("takapedia-key-1"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn304WhenEtagMatches() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header("If-None-Match", document.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", document.etag()))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void shouldReturnFullBodyWhenEtagStale() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header("If-None-Match", "\"kunci-lama\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(document.body()));
+    }
+
+    @Test
+    void etagChangesOnlyWhenKeySetChanges() {
+        JwksDocument same = new JwksDocument(new SigningKeyRing(List.of(rsa, ec), Set.of(), "takapedia-ec-1"));
+        JwksDocument rotated = new JwksDocument(new SigningKeyRing(List.of(rsa), Set.of(), "takapedia-key-1"));
+
+        // Kunci aktif tidak memengaruhi isi JWKS
+        assertThat(same.etag()).isEqualTo(document.etag());
+        assertThat(rotated.etag()).isNotEqualTo(document.etag());
+    }
+}
@@ -0,0 +1,121 @@
+package com.takapedia.auth.security;
+
+import com.takapedia.auth.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CountDownLatch release = new CountDownLatch(1);
+    BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_runOnExecutor() {
+        encoder = new BoundedPasswordEncoder(new ThreadRecordingEncoder(), 1, 1, Duration.ofSeconds(1), meterRegistry);
+
+        assertThat(encoder.encode("secret")).startsWith("password-hash-");
+        assertThat(encoder.matches("secret", "x")).isTrue();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueue_rejectsImmediately() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        // 1 sedang diproses, 1 di antrean
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        waitUntil(() -> meterRegistry.get("auth.password.hash.active").gauge().value() == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitUntil(() -> meterRegistry.get("auth.password.hash.queue").gauge().value() == 1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(HashingCapacityExceededException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+    }
+
+    @Test
+    void waitingTooLong_isRejected() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 4, Duration.ofMillis(100), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("a"))
+                .isInstanceOf(HashingCapacityExceededException.class)
+                .extracting(e -> ((HashingCapacityExceededException) e).getRetryAfter())
+                .isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void queueCapacity_fitsWithinMaxWaitAtTargetLatency() {
+        // 4 thread × 250ms: antrean 28 → request terakhir selesai di (28 / 4 + 1) × 250ms = 2s
+        assertThat(BoundedPasswordEncoder.queueCapacityFor(4, Duration.ofMillis(250), Duration.ofSeconds(2)))
+                .isEqualTo(28);
+        // max-wait lebih pendek dari satu hash: tetap sisakan satu slot
+        assertThat(BoundedPasswordEncoder.queueCapacityFor(4, Duration.ofMillis(250), Duration.ofMillis(100)))
+                .isEqualTo(1);
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Kondisi tidak tercapai");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    static class ThreadRecordingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().startsWith("password-hash-");
+        }
+    }
+
+    record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
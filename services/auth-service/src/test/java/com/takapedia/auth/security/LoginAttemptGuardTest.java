@@ -0,0 +1,198 @@
+package com.takapedia.auth.security;
+
+import com.takapedia.auth.entity.LoginFailure;
+import com.takapedia.auth.exception.LoginThrottledException;
+import com.takapedia.auth.repository.LoginFailureRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginAttemptGuardTest {
+
+    private static final String EMAIL = "adit@takapedia.com";
+    private static final String SOURCE = "10.0.0.7";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final LoginFailureRepository repository = mock(LoginFailureRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Akun terkunci di gagal ke-3, sumber di gagal ke-10; lockout 30s → 60s → 120s
+    private final LoginAttemptGuard guard = new LoginAttemptGuard(repository, true, 3, 10,
+            Duration.ofSeconds(30), Duration.ofMinutes(15), Duration.ofMinutes(15), 1000,
+            Duration.ofSeconds(5), meterRegistry, clock);
+
+    @Test
+    void shouldLockAccountOnceThresholdReached() {
+        guard.recordFailure(EMAIL, SOURCE);
+        guard.recordFailure(EMAIL, SOURCE);
+        assertThatCode(() -> guard.check(EMAIL, SOURCE)).doesNotThrowAnyException();
+
+        guard.recordFailure(EMAIL, SOURCE);
+
+        assertThatThrownBy(() -> guard.check("Adit@Takapedia.com ", "10.0.0.8"))
+                .isInstanceOfSatisfying(LoginThrottledException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(30)));
+        assertThat(meterRegistry.counter("auth.login.rejected", "scope", "account").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDoubleLockoutForEachFailureAfterThreshold() {
+        for (int i = 0; i < 3; i++) {
+            guard.recordFailure(EMAIL, SOURCE);
+        }
+        clock.advance(Duration.ofSeconds(31));
+        assertThatCode(() -> guard.check(EMAIL, SOURCE)).doesNotThrowAnyException();
+
+        guard.recordFailure(EMAIL, SOURCE);
+
+        assertThatThrownBy(() -> guard.check(EMAIL, SOURCE))
+                .isInstanceOfSatisfying(LoginThrottledException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void shouldForgetFailuresAfterSuccessfulLogin() {
+        guard.recordFailure(EMAIL, SOURCE);
+        guard.recordFailure(EMAIL, SOURCE);
+        guard.recordSuccess(EMAIL);
+        guard.recordFailure(EMAIL, SOURCE);
+
+        assertThatCode(() -> guard.check(EMAIL, SOURCE)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldLockSourceSprayingManyAccounts() {
+        for (int i = 0; i < 10; i++) {
+            guard.recordFailure("korban" + i + "@takapedia.com", SOURCE);
+        }
+
+        assertThatThrownBy(() -> guard.check("belum-dicoba@takapedia.com", SOURCE))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> guard.check("belum-dicoba@takapedia.com", "10.0.0.8"))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldPushLocalFailuresOnSync() {
+        guard.recordFailure(EMAIL, SOURCE);
+        guard.recordFailure(EMAIL, SOURCE);
+        when(repository.addFailures(eq("account:" + EMAIL), eq(2), any(), any())).thenReturn(0);
+        when(repository.addFailures(eq("source:" + SOURCE), eq(2), any(), any())).thenReturn(1);
+
+        guard.sync();
+
+        // Baris akun belum ada → dibuat; baris sumber sudah ada → cukup ditambah
+        verify(repository).save(argThat(row -> row.getId().equals("account:" + EMAIL) && row.getFailures() == 2));
+    }
+
+    @Test
+    void shouldAddToRowCreatedConcurrentlyByOtherInstance() {
+        guard.recordFailure(EMAIL, SOURCE);
+        when(repository.addFailures(eq("account:" + EMAIL), eq(1), any(), any())).thenReturn(0);
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        guard.sync();
+
+        verify(repository, times(2)).addFailures(eq("account:" + EMAIL), eq(1), any(), any());
+    }
+
+    @Test
+    void shouldResendDrainedFailuresWhenPushFails() {
+        guard.recordFailure(EMAIL, SOURCE);
+        guard.recordFailure(EMAIL, SOURCE);
+        when(repository.addFailures(eq("account:" + EMAIL), eq(2), any(), any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+        when(repository.addFailures(eq("source:" + SOURCE), eq(2), any(), any())).thenReturn(1);
+
+        guard.sync();
+        guard.sync();
+
+        // Sync pertama gagal; delta yang sama terkirim utuh di sync berikutnya
+        verify(repository, times(2)).addFailures(eq("account:" + EMAIL), eq(2), any(), any());
+        verify(repository).addFailures(eq("source:" + SOURCE), eq(2), any(), any());
+    }
+
+    @Test
+    void shouldLockAccountFromFailuresSeenByOtherInstances() {
+        LoginFailure remote = new LoginFailure();
+        remote.setId("account:" + EMAIL);
+        remote.setFailures(3);
+        remote.setLastFailureAt(clock.instant().minusSeconds(1));
+        when(repository.findByLastFailureAtAfter(any())).thenReturn(List.of(remote));
+
+        guard.sync();
+
+        assertThatThrownBy(() -> guard.check(EMAIL, SOURCE))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void shouldKeepWorkingLocallyWhenSyncFails() {
+        when(repository.findByLastFailureAtAfter(any())).thenThrow(new IllegalStateException("db down"));
+        for (int i = 0; i < 3; i++) {
+            guard.recordFailure(EMAIL, SOURCE);
+        }
+
+        assertThatCode(guard::sync).doesNotThrowAnyException();
+        assertThatThrownBy(() -> guard.check(EMAIL, SOURCE))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void shouldBoundTrackedKeys() {
+        FailureCounters counters = new FailureCounters(64, 4, 3, Duration.ofSeconds(30), Duration.ofMinutes(15),
+                Duration.ofMinutes(15));
+        for (int i = 0; i < 10_000; i++) {
+            counters.recordFailure("acak" + i + "@takapedia.com", clock.instant());
+        }
+
+        assertThat(counters.size()).isLessThanOrEqualTo(64);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
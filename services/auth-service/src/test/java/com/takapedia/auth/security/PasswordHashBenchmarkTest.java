@@ -0,0 +1,67 @@
+package com.takapedia.auth.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Bahan capacity planning login: hash/detik per core untuk tiap parameter.
+// Jalankan manual: mvn test -Dtest=PasswordHashBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordHashBenchmarkTest {
+
+    static final Duration MEASURE = Duration.ofSeconds(3);
+
+    @Test
+    void bcrypt() throws Exception {
+        for (int cost = 10; cost <= 13; cost++) {
+            report("bcrypt cost=" + cost, PasswordHashCalibrator.bcrypt(cost));
+        }
+    }
+
+    @Test
+    void argon2() throws Exception {
+        for (int iterations = 2; iterations <= 4; iterations++) {
+            report("argon2id m=19456KiB p=1 t=" + iterations, PasswordHashCalibrator.argon2(19456, 1, iterations));
+        }
+    }
+
+    private static void report(String label, PasswordEncoder encoder) throws Exception {
+        String hash = encoder.encode("benchmark-password");
+        encoder.matches("benchmark-password", hash); // warm-up
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(cores);
+        try {
+            long deadline = System.nanoTime() + MEASURE.toNanos();
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int i = 0; i < cores; i++) {
+                workers.add(executor.submit(() -> {
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        encoder.matches("benchmark-password", hash);
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            long total = 0;
+            for (Future<Integer> worker : workers) {
+                total += worker.get();
+            }
+            double perSecond = total / (double) MEASURE.toSeconds();
+            System.out.printf("%-32s %8.1f hash/s total, %6.1f hash/s/core, %6.1f ms/hash (%d core)%n",
+                    label, perSecond, perSecond / cores, cores * 1000.0 / perSecond, cores);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.takapedia.auth.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashCalibratorTest {
+
+    @Test
+    void calibrate_neverGoesBelowMinimum() {
+        int cost = PasswordHashCalibrator.calibrate(Duration.ofNanos(1), 4, 16,
+                PasswordHashCalibrator::bcrypt, true);
+
+        assertThat(cost).isEqualTo(4);
+    }
+
+    @Test
+    void calibrate_isCappedAtMaximum() {
+        int cost = PasswordHashCalibrator.calibrate(Duration.ofHours(1), 4, 6,
+                PasswordHashCalibrator::bcrypt, true);
+
+        assertThat(cost).isEqualTo(6);
+    }
+
+    @Test
+    void legacyBcryptHashWithoutPrefix_stillMatchesAndNeedsUpgrade() {
+        DelegatingPasswordEncoder encoder = PasswordHashCalibrator.calibrated(
+                PasswordHashCalibrator.BCRYPT, Duration.ofMillis(1), 4096, 1);
+        String legacy = new BCryptPasswordEncoder(4).encode("rahasia123");
+
+        assertThat(encoder.matches("rahasia123", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+        String upgraded = encoder.encode("rahasia123");
+        assertThat(upgraded).startsWith("{bcrypt}");
+        assertThat(encoder.matches("rahasia123", upgraded)).isTrue();
+        assertThat(encoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
+    @Test
+    void argon2_upgradesBcryptHashToArgon2() {
+        DelegatingPasswordEncoder encoder = PasswordHashCalibrator.calibrated(
+                PasswordHashCalibrator.ARGON2, Duration.ofMillis(1), 4096, 1);
+        String bcrypt = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("rahasia123");
+
+        assertThat(encoder.matches("rahasia123", bcrypt)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt)).isTrue();
+
+        String upgraded = encoder.encode("rahasia123");
+        assertThat(upgraded).startsWith("{argon2}");
+        assertThat(encoder.matches("rahasia123", upgraded)).isTrue();
+        assertThat(encoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
+    @Test
+    void unknownAlgorithm_fails() {
+        assertThatThrownBy(() -> PasswordHashCalibrator.calibrated("md5", Duration.ofMillis(1), 4096, 1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.takapedia.auth.security;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.takapedia.auth.config.JwkConfig;
+import com.takapedia.auth.entity.User;
+import com.takapedia.auth.service.JwtService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.security.KeyPairGenerator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SigningKeyRingTest {
+
+    static JWK rsa;
+    static JWK ec;
+    static JWK ed;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        ec = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+        ed = Ed25519.toJwk(KeyPairGenerator.getInstance("Ed25519").generateKeyPair(), "ed-1");
+    }
+
+    @Test
+    void tokenFromEveryAlgorithm_verifiesAgainstJwks() throws Exception {
+        for (String active : List.of("rsa-1", "ec-1", "ed-1")) {
+            SigningKeyRing ring = new SigningKeyRing(List.of(rsa, ec, ed), Set.of(), active);
+            JwtService jwtService = new JwtService(ring, 60_000);
+
+            String token = jwtService.generateToken(user());
+            Jwt decoded = decoder(ring).decode(token);
+
+            assertThat(decoded.getHeaders()).containsEntry("kid", active);
+            assertThat(decoded.getClaimAsString("role")).isEqualTo("USER");
+        }
+    }
+
+    @Test
+    void algorithmFollowsKeyType() throws Exception {
+        SigningKeyRing ring = new SigningKeyRing(List.of(rsa, ec, ed), Set.of(), "ed-1");
+
+        assertThat(SignedJWT.parse(new JwtService(ring, 60_000).generateToken(user())).getHeader().getAlgorithm().getName())
+                .isEqualTo("EdDSA");
+        assertThat(ring.get("rsa-1").algorithm().getName()).isEqualTo("RS256");
+        assertThat(ring.get("ec-1").algorithm().getName()).isEqualTo("ES256");
+    }
+
+    @Test
+    void jwks_containsOnlyPublicKeysWithAlg() {
+        SigningKeyRing ring = new SigningKeyRing(List.of(rsa, ec, ed), Set.of(), "rsa-1");
+
+        List<Map<String, Object>> keys = keysOf(ring);
+        assertThat(keys).hasSize(3);
+        assertThat(keys).allSatisfy(key -> {
+            assertThat(key).doesNotContainKey("d");
+            assertThat(key).containsKey("alg");
+        });
+    }
+
+    @Test
+    void verifyOnlyKey_cannotBeActive_butItsOldTokensStayValid() {
+        SigningKeyRing before = new SigningKeyRing(List.of(rsa, ec), Set.of(), "rsa-1");
+        String oldToken = new JwtService(before, 60_000).generateToken(user());
+
+        // Rotasi: ec-1 jadi aktif, rsa-1 tinggal untuk verifikasi
+        SigningKeyRing after = new SigningKeyRing(List.of(rsa, ec), Set.of("rsa-1"), "ec-1");
+        assertThat(after.get("rsa-1").canSign()).isFalse();
+        assertThat(decoder(after).decode(oldToken).getSubject()).isEqualTo(user().getId().toString());
+
+        assertThatThrownBy(() -> new SigningKeyRing(List.of(rsa, ec), Set.of("rsa-1"), "rsa-1"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void keyWithoutPrivateKey_cannotBeActive() {
+        assertThatThrownBy(() -> new SigningKeyRing(List.of(rsa.toPublicJWK()), Set.of(), "rsa-1"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> keysOf(SigningKeyRing ring) {
+        return (List<Map<String, Object>>) ring.publicJwkSet().toJSONObject(true).get("keys");
+    }
+
+    private static JwtDecoder decoder(SigningKeyRing ring) {
+        return new JwkConfig().jwtDecoder(ring, new ImmutableJWKSet<>(ring.publicJwkSet()));
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"));
+        user.setRole("USER");
+        return user;
+    }
+}
@@ -0,0 +1,51 @@
+package com.takapedia.auth.security;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.takapedia.auth.entity.User;
+import com.takapedia.auth.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Token/detik per core untuk tiap algoritma tanda tangan.
+// Jalankan manual: mvn test -Dtest=TokenSigningBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TokenSigningBenchmarkTest {
+
+    static final Duration MEASURE = Duration.ofSeconds(3);
+
+    @Test
+    void signingThroughput() throws Exception {
+        List<JWK> keys = List.of(
+                new RSAKeyGenerator(2048).keyID("RS256").generate(),
+                new ECKeyGenerator(Curve.P_256).keyID("ES256").generate(),
+                Ed25519.toJwk(KeyPairGenerator.getInstance("Ed25519").generateKeyPair(), "EdDSA"));
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setRole("USER");
+
+        for (JWK key : keys) {
+            JwtService jwtService = new JwtService(new SigningKeyRing(keys, Set.of(), key.getKeyID()), 900_000);
+            for (int i = 0; i < 200; i++) {
+                jwtService.generateToken(user); // warm-up
+            }
+            long deadline = System.nanoTime() + MEASURE.toNanos();
+            long count = 0;
+            while (System.nanoTime() < deadline) {
+                jwtService.generateToken(user);
+                count++;
+            }
+            double perSecond = count / (double) MEASURE.toSeconds();
+            System.out.printf("%-6s %9.1f token/s/core, %7.3f ms/token%n", key.getKeyID(), perSecond, 1000.0 / perSecond);
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.takapedia.auth.service;
 import com.takapedia.auth.dto.LoginRequest;
 import com.takapedia.auth.entity.User;
 import com.takapedia.auth.exception.InvalidCredentialsException;
+import com.takapedia.auth.exception.InvalidRefreshTokenException;
+import com.takapedia.auth.exception.LoginThrottledException;
 import com.takapedia.auth.repository.UserRepository;
+import com.takapedia.auth.security.LoginAttemptGuard;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -11,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +28,8 @@ public class AuthServiceLoginTest {
     @Mock private UserRepository userRepository;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private JwtService jwtService;
+    @Mock private RefreshTokenService refreshTokenService;
+    @Mock private LoginAttemptGuard loginAttemptGuard;
 
     @InjectMocks
     private AuthService authService;
@@ -47,10 +53,13 @@ public class AuthServiceLoginTest {
         when(passwordEncoder.matches("plainPassword123", user.getPassword()))
                 .thenReturn(true);
         when(jwtService.generateToken(user)).thenReturn("token.jwt.dummy");
+        when(refreshTokenService.issue(user.getId())).thenReturn("refresh.dummy");
 
-        String token = authService.login(request);
+        IssuedTokens tokens = authService.login(request, "10.0.0.7");
 
-        assertThat(token).isEqualTo("token.jwt.dummy");
+        assertThat(tokens.accessToken()).isEqualTo("token.jwt.dummy");
+        assertThat(tokens.refreshToken()).isEqualTo("refresh.dummy");
+        verify(loginAttemptGuard).recordSuccess("adit@takapedia.com");
     }
 
     @Test
@@ -63,10 +72,12 @@ public class AuthServiceLoginTest {
         when(passwordEncoder.matches("passwordSalah", user.getPassword()))
                 .thenReturn(false);
 
-        assertThatThrownBy(() -> authService.login(request))
+        assertThatThrownBy(() -> authService.login(request, "10.0.0.7"))
                 .isInstanceOf(InvalidCredentialsException.class);
 
         verify(jwtService, never()).generateToken(any());
+        verify(refreshTokenService, never()).issue(any());
+        verify(loginAttemptGuard).recordFailure("adit@takapedia.com", "10.0.0.7");
     }
 
     @Test
@@ -76,7 +87,84 @@ public class AuthServiceLoginTest {
         when(userRepository.findByEmail("hantu@takapedia.com"))
                 .thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> authService.login(request))
+        assertThatThrownBy(() -> authService.login(request, "10.0.0.7"))
                 .isInstanceOf(InvalidCredentialsException.class);
+        verify(loginAttemptGuard).recordFailure("hantu@takapedia.com", "10.0.0.7");
+    }
+
+    @Test
+    void shouldRejectLockedOutLoginWithoutDatabaseOrHashing() {
+        LoginRequest request = new LoginRequest("adit@takapedia.com", "tebakanKe100");
+        doThrow(new LoginThrottledException(Duration.ofSeconds(30)))
+                .when(loginAttemptGuard).check("adit@takapedia.com", "10.0.0.7");
+
+        assertThatThrownBy(() -> authService.login(request, "10.0.0.7"))
+                .isInstanceOf(LoginThrottledException.class);
+
+        verifyNoInteractions(userRepository, passwordEncoder);
+        verify(loginAttemptGuard, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void shouldRehashPasswordWhenEncodingStale() {
+        LoginRequest request = new LoginRequest("adit@takapedia.com", "plainPassword123");
+        User user = existingUser();
+
+        when(userRepository.findByEmail("adit@takapedia.com"))
+                .thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("plainPassword123", user.getPassword()))
+                .thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$hashedPasswordYangTersimpan"))
+                .thenReturn(true);
+        when(passwordEncoder.encode("plainPassword123")).thenReturn("{bcrypt}$2a$12$hashBaru");
+        when(jwtService.generateToken(user)).thenReturn("token.jwt.dummy");
+
+        authService.login(request, "10.0.0.7");
+
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}$2a$12$hashBaru");
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void shouldNotRehashWhenPasswordWrong() {
+        LoginRequest request = new LoginRequest("adit@takapedia.com", "passwordSalah");
+        User user = existingUser();
+
+        when(userRepository.findByEmail("adit@takapedia.com"))
+                .thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("passwordSalah", user.getPassword()))
+                .thenReturn(false);
+
+        assertThatThrownBy(() -> authService.login(request, "10.0.0.7"))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldMintAccessTokenFromRefreshTokenWithoutPasswordCheck() {
+        User user = existingUser();
+        when(refreshTokenService.rotate("refresh.lama"))
+                .thenReturn(new RefreshTokenService.Rotation(user.getId(), "refresh.baru"));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(user)).thenReturn("token.jwt.dummy");
+
+        IssuedTokens tokens = authService.refresh("refresh.lama");
+
+        assertThat(tokens.accessToken()).isEqualTo("token.jwt.dummy");
+        assertThat(tokens.refreshToken()).isEqualTo("refresh.baru");
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void shouldRejectRefreshWhenUserNoLongerExists() {
+        UUID userId = UUID.randomUUID();
+        when(refreshTokenService.rotate("refresh.lama"))
+                .thenReturn(new RefreshTokenService.Rotation(userId, "refresh.baru"));
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.refresh("refresh.lama"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
     }
 }
@@ -4,6 +4,7 @@ import com.takapedia.auth.dto.RegisterRequest;
 import com.takapedia.auth.entity.User;
 import com.takapedia.auth.exception.EmailAlreadyExistsException;
 import com.takapedia.auth.repository.UserRepository;
+import com.takapedia.auth.security.LoginAttemptGuard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,13 +30,20 @@ public class AuthServiceTest {
     @Mock
     private JwtService jwtService;   // dibutuhkan constructor, tak dipakai test register
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private LoginAttemptGuard loginAttemptGuard;
+
     private PasswordEncoder passwordEncoder;
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         passwordEncoder = new BCryptPasswordEncoder();           // ENCODER ASLI
-        authService = new AuthService(userRepository, passwordEncoder, jwtService);
+        authService = new AuthService(userRepository, passwordEncoder, jwtService, refreshTokenService,
+                loginAttemptGuard);
     }
 
     @Test
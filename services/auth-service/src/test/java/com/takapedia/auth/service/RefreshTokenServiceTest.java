@@ -0,0 +1,112 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.entity.RefreshToken;
+import com.takapedia.auth.exception.InvalidRefreshTokenException;
+import com.takapedia.auth.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void shouldStoreOnlyHashOfIssuedToken() {
+        String raw = refreshTokenService.issue(UUID.randomUUID());
+
+        assertThat(refreshTokenRepository.findByTokenHash(raw)).isEmpty();
+        assertThat(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(raw))).isPresent();
+    }
+
+    @Test
+    void shouldRotateIntoNewTokenForSameUser() {
+        UUID userId = UUID.randomUUID();
+        String first = refreshTokenService.issue(userId);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertThat(rotation.userId()).isEqualTo(userId);
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        assertThat(refreshTokenService.rotate(rotation.refreshToken()).userId()).isEqualTo(userId);
+    }
+
+    @Test
+    void shouldRevokeWholeFamilyWhenUsedTokenIsReplayed() {
+        String first = refreshTokenService.issue(UUID.randomUUID());
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        // Token pertama dipakai ulang → dianggap dicuri
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        // Token terbaru di family yang sama ikut tidak berlaku
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        String raw = refreshTokenService.issue(UUID.randomUUID());
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(raw)).orElseThrow();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+        refreshTokenRepository.saveAndFlush(stored);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(raw))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void shouldRejectUnknownToken() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("tidak-pernah-diterbitkan"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void shouldRejectRefreshAfterLogout() {
+        UUID userId = UUID.randomUUID();
+        String loggedOut = refreshTokenService.rotate(refreshTokenService.issue(userId)).refreshToken();
+        String otherDevice = refreshTokenService.issue(userId);
+
+        refreshTokenService.revoke(userId, loggedOut);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(loggedOut))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        // Hanya family yang logout; perangkat lain tetap bisa refresh
+        assertThat(refreshTokenService.rotate(otherDevice).userId()).isEqualTo(userId);
+    }
+
+    @Test
+    void shouldRevokeAllFamiliesWhenLogoutWithoutRefreshToken() {
+        UUID userId = UUID.randomUUID();
+        String first = refreshTokenService.issue(userId);
+        String second = refreshTokenService.issue(userId);
+
+        refreshTokenService.revoke(userId, null);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second)).isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void shouldNotRevokeOtherUsersFamilyOnLogout() {
+        String victim = refreshTokenService.issue(UUID.randomUUID());
+
+        refreshTokenService.revoke(UUID.randomUUID(), victim);
+
+        assertThat(refreshTokenService.rotate(victim)).isNotNull();
+    }
+}
@@ -0,0 +1,78 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.dto.RevocationFeed;
+import com.takapedia.auth.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TokenRevocationService.class)
+@TestPropertySource(properties = "jwt.expiration-ms=900000")
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Test
+    void shouldReturnOnlyRevocationsAfterCursor() {
+        Instant exp = Instant.now().plusSeconds(600);
+        tokenRevocationService.revoke("jti-1", exp);
+        tokenRevocationService.revoke("jti-2", exp);
+
+        RevocationFeed first = tokenRevocationService.changesSince(0, 1);
+        assertThat(first.revoked()).extracting(RevocationFeed.Entry::jti).containsExactly("jti-1");
+
+        RevocationFeed second = tokenRevocationService.changesSince(first.cursor(), 1000);
+        assertThat(second.revoked()).extracting(RevocationFeed.Entry::jti).containsExactly("jti-2");
+
+        RevocationFeed empty = tokenRevocationService.changesSince(second.cursor(), 1000);
+        assertThat(empty.revoked()).isEmpty();
+        assertThat(empty.cursor()).isEqualTo(second.cursor());
+    }
+
+    @Test
+    void shouldIgnoreDuplicateAndAlreadyExpiredRevocations() {
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(600));
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(600));
+        tokenRevocationService.revoke("jti-lama", Instant.now().minusSeconds(1));
+
+        assertThat(revokedTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDefaultExpiryToMaxTokenLifetime() {
+        tokenRevocationService.revoke("jti-1", null);
+
+        assertThat(revokedTokenRepository.findAll().getFirst().getExpiresAt())
+                .isBetween(Instant.now().plusSeconds(890), Instant.now().plusSeconds(901));
+    }
+
+    @Test
+    void shouldPurgeExpiredRows() {
+        tokenRevocationService.revoke("jti-1", Instant.now().plusMillis(50));
+        tokenRevocationService.revoke("jti-2", Instant.now().plusSeconds(600));
+
+        await(100);
+        tokenRevocationService.purgeExpired();
+
+        assertThat(revokedTokenRepository.findAll()).extracting(t -> t.getJti()).containsExactly("jti-2");
+    }
+
+    private static void await(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
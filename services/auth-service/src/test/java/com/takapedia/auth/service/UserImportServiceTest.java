@@ -0,0 +1,136 @@
+package com.takapedia.auth.service;
+
+import com.takapedia.auth.dto.ImportReport;
+import com.takapedia.auth.entity.User;
+import com.takapedia.auth.exception.InvalidImportFileException;
+import com.takapedia.auth.repository.UserBulkWriter;
+import com.takapedia.auth.repository.UserRepository;
+import com.takapedia.auth.security.PasswordHashCalibrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// H2 mode PostgreSQL supaya "on conflict do nothing" sama dengan produksi
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:importdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+class UserImportServiceTest {
+
+    private static final String BCRYPT_HASH = "$2a$04$abcdefghijklmnopqrstuuJ8eiyN3HAPhG0s3L9x9qmV3xD4YOpIK";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder = PasswordHashCalibrator.bcrypt(4);
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        // Batch kecil supaya pipeline melewati beberapa batch
+        userImportService = new UserImportService(new UserBulkWriter(jdbcTemplate), passwordEncoder,
+                JsonMapper.builder().build(), 2, 2, 1000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldImportNdjsonWithRawAndPrehashedPasswords() {
+        String ndjson = """
+                {"email": "satu@partner.com", "password": "rahasia123"}
+                {"email": "dua@partner.com", "passwordHash": "%s"}
+
+                {"email": "tiga@partner.com", "password": "rahasia456"}
+                """.formatted(BCRYPT_HASH);
+
+        ImportReport report = userImportService.importUsers(reader(ndjson), ImportFormat.NDJSON);
+
+        assertThat(report.read()).isEqualTo(3);
+        assertThat(report.inserted()).isEqualTo(3);
+        User satu = userRepository.findByEmail("satu@partner.com").orElseThrow();
+        assertThat(passwordEncoder.matches("rahasia123", satu.getPassword())).isTrue();
+        assertThat(satu.getRole()).isEqualTo("USER");
+        assertThat(userRepository.findByEmail("dua@partner.com").orElseThrow().getPassword()).isEqualTo(BCRYPT_HASH);
+    }
+
+    @Test
+    void shouldSkipEmailsThatAlreadyExistOrRepeatInFile() {
+        User existing = new User();
+        existing.setEmail("lama@takapedia.com");
+        existing.setPassword("hash_lama");
+        existing.setRole("USER");
+        existing.setCreatedAt(Instant.now());
+        userRepository.saveAndFlush(existing);
+
+        String csv = """
+                email,passwordHash
+                lama@takapedia.com,%1$s
+                baru@partner.com,%1$s
+                baru@partner.com,%1$s
+                """.formatted(BCRYPT_HASH);
+
+        ImportReport report = userImportService.importUsers(reader(csv), ImportFormat.CSV);
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.duplicates()).isEqualTo(2);
+        assertThat(userRepository.findByEmail("lama@takapedia.com").orElseThrow().getPassword())
+                .isEqualTo("hash_lama");
+    }
+
+    @Test
+    void shouldRejectInvalidRowsAndReportLineNumbers() {
+        String csv = """
+                email,password
+                bukan-email,rahasia123
+                "kutip@partner.com","pass,word"
+                pendek@partner.com,123
+                """;
+
+        ImportReport report = userImportService.importUsers(reader(csv), ImportFormat.CSV);
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.errors()).containsExactly(
+                "baris 2: email tidak valid",
+                "baris 4: password minimal 8 karakter");
+        assertThat(passwordEncoder.matches("pass,word",
+                userRepository.findByEmail("kutip@partner.com").orElseThrow().getPassword())).isTrue();
+    }
+
+    @Test
+    void shouldRejectPlaintextInPasswordHashColumn() {
+        String ndjson = """
+                {"email": "polos@partner.com", "passwordHash": "rahasia123"}
+                """;
+
+        ImportReport report = userImportService.importUsers(reader(ndjson), ImportFormat.NDJSON);
+
+        assertThat(report.rejected()).isEqualTo(1);
+        assertThat(userRepository.findByEmail("polos@partner.com")).isEmpty();
+    }
+
+    @Test
+    void shouldFailWhenCsvHeaderHasNoEmailColumn() {
+        assertThatThrownBy(() -> userImportService.importUsers(reader("nama,password\n"), ImportFormat.CSV))
+                .isInstanceOf(InvalidImportFileException.class);
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+}
@@ -1,17 +1,21 @@
 package com.takapedia.order.config;
 
+import com.takapedia.order.security.InternalIdentityFilter;
+import com.takapedia.order.security.InternalIdentityVerifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, InternalIdentityVerifier internalIdentityVerifier)
+            throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -20,7 +24,12 @@ public class SecurityConfig {
                         // write butuh auth
                         .anyRequest().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+                // Identitas internal dari gateway dicek duluan; JWT tetap jadi fallback
+                .addFilterBefore(new InternalIdentityFilter(internalIdentityVerifier),
+                        BearerTokenAuthenticationFilter.class)
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(InternalIdentityFilter.bearerTokenResolver())
+                        .jwt(Customizer.withDefaults()));
         return http.build();
     }
-}
\ No newline at end of file
+}
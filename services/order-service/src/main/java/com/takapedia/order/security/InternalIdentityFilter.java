@@ -0,0 +1,57 @@
+package com.takapedia.order.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+// Dipasang sebelum BearerTokenAuthenticationFilter. Kalau header identitas internal valid,
+// request langsung terautentikasi dan JWT tidak diverifikasi ulang; kalau tidak, jalur JWT tetap jalan.
+public class InternalIdentityFilter extends OncePerRequestFilter {
+
+    static final String AUTHENTICATED_ATTRIBUTE = InternalIdentityFilter.class.getName() + ".AUTHENTICATED";
+
+    private final InternalIdentityVerifier verifier;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    public InternalIdentityFilter(InternalIdentityVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    // Bearer token diabaikan untuk request yang sudah terautentikasi lewat identitas internal
+    public static BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        return request -> request.getAttribute(AUTHENTICATED_ATTRIBUTE) != null ? null : delegate.resolve(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        verifier.verify(request.getHeader(InternalIdentityVerifier.HEADER)).ifPresent(identity -> {
+            UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    identity.subject(), null, List.of(new SimpleGrantedAuthority("ROLE_" + identity.role())));
+            SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+            context.setAuthentication(authentication);
+            securityContextHolderStrategy.setContext(context);
+            request.setAttribute(AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
+        });
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !verifier.isEnabled();
+    }
+}
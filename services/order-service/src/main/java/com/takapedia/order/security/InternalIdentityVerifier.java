@@ -0,0 +1,97 @@
+package com.takapedia.order.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+// Verifikasi header identitas internal dari gateway: base64url(sub|role|exp).base64url(HMAC-SHA256)
+// Cukup satu HMAC (mikrodetik), bukan verifikasi RSA kedua untuk JWT yang sama
+@Component
+public class InternalIdentityVerifier {
+
+    public static final String HEADER = "X-Internal-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final Duration maxSkew;
+    private final Clock clock;
+
+    @Autowired
+    public InternalIdentityVerifier(@Value("${internal-auth.enabled:false}") boolean enabled,
+                                    @Value("${internal-auth.secret:}") String secret,
+                                    @Value("${internal-auth.max-skew:5s}") Duration maxSkew) {
+        this(enabled, secret, maxSkew, Clock.systemUTC());
+    }
+
+    InternalIdentityVerifier(boolean enabled, String secret, Duration maxSkew, Clock clock) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (enabled && secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("internal-auth.secret minimal " + MIN_SECRET_BYTES + " byte");
+        }
+        this.enabled = enabled;
+        this.key = enabled ? new SecretKeySpec(secretBytes, ALGORITHM) : null;
+        this.maxSkew = maxSkew;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<InternalIdentity> verify(String header) {
+        if (!enabled || header == null) {
+            return Optional.empty();
+        }
+        int dot = header.indexOf('.');
+        if (dot <= 0 || dot == header.length() - 1) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(header.substring(0, dot));
+            byte[] signature = Base64.getUrlDecoder().decode(header.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || parts[0].isBlank() || parts[1].isBlank()) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(parts[2]);
+            if (clock.instant().getEpochSecond() > expiresAt + maxSkew.toSeconds()) {
+                return Optional.empty();
+            }
+            return Optional.of(new InternalIdentity(parts[0], parts[1]));
+        } catch (IllegalArgumentException e) {
+            // base64 atau exp rusak → anggap tidak ada identitas internal
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 tidak tersedia", e);
+        }
+    }
+
+    public record InternalIdentity(String subject, String role) {
+    }
+}
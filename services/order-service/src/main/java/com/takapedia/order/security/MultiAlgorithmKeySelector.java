@@ -0,0 +1,62 @@
+package com.takapedia.order.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Pengganti JWSVerificationKeySelector: KeyConverter Nimbus melewatkan kunci OKP, jadi token EdDSA
+// tidak akan pernah menemukan kuncinya tanpa konversi sendiri
+public class MultiAlgorithmKeySelector<C extends SecurityContext> implements JWSKeySelector<C> {
+
+    private final Set<JWSAlgorithm> algorithms;
+    private final JWKSource<C> jwkSource;
+
+    public MultiAlgorithmKeySelector(Set<JWSAlgorithm> algorithms, JWKSource<C> jwkSource) {
+        this.algorithms = Set.copyOf(algorithms);
+        this.jwkSource = jwkSource;
+    }
+
+    @Override
+    public List<Key> selectJWSKeys(JWSHeader header, C context) throws KeySourceException {
+        if (!algorithms.contains(header.getAlgorithm())) {
+            return List.of();
+        }
+        List<JWK> candidates = jwkSource.get(new JWKSelector(JWKMatcher.forJWSHeader(header)), context);
+        List<Key> keys = new ArrayList<>(candidates.size());
+        for (JWK jwk : candidates) {
+            try {
+                Key key = toPublicKey(jwk);
+                if (key != null) {
+                    keys.add(key);
+                }
+            } catch (JOSEException e) {
+                // Kunci rusak dilewati, kunci lain dengan kid sama masih bisa dipakai
+            }
+        }
+        return keys;
+    }
+
+    static Key toPublicKey(JWK jwk) throws JOSEException {
+        return switch (jwk) {
+            case RSAKey rsa -> rsa.toRSAPublicKey();
+            case ECKey ec -> ec.toECPublicKey();
+            case OctetKeyPair okp -> Ed25519.publicKey(okp);
+            default -> null;
+        };
+    }
+}
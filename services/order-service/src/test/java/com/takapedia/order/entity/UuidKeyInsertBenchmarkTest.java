@@ -0,0 +1,113 @@
+package com.takapedia.order.entity;
+
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Benchmark PK UUID acak vs UUIDv7 pada tabel berbentuk orders di Postgres sungguhan (bukan H2).
+// Jalankan manual (Postgres dari docker-compose): mvn test -Dtest=UuidKeyInsertBenchmarkTest -Dbenchmark=true
+// Opsional: -Dbenchmark.db.url=... -Dbenchmark.db.user=... -Dbenchmark.db.password=... -Dbenchmark.rows=2000000
+//
+// Yang dibandingkan: throughput insert di awal vs akhir pengisian (melambat saat index PK melebihi
+// shared_buffers), ukuran index PK, dan ukuran tabel.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UuidKeyInsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final String url = System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/order_db");
+    private final String user = System.getProperty("benchmark.db.user", "takapedia");
+    private final String password = System.getProperty("benchmark.db.password", "takapedia_dev");
+    private final int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws SQLException {
+        Result random = run("bench_orders_uuid4", UUID::randomUUID);
+        Result v7 = run("bench_orders_uuid7", () -> UuidVersion7Strategy.INSTANCE.generateUuid(null));
+
+        System.out.printf("%n%-8s %12s %12s %12s %14s %14s%n",
+                "key", "rows/s", "awal rows/s", "akhir rows/s", "index PK (MB)", "tabel (MB)");
+        for (Result result : new Result[]{random, v7}) {
+            System.out.printf("%-8s %12d %12d %12d %14.1f %14.1f%n", result.name(), result.rowsPerSecond(),
+                    result.firstTenthRowsPerSecond(), result.lastTenthRowsPerSecond(),
+                    result.indexBytes() / 1048576.0, result.tableBytes() / 1048576.0);
+        }
+
+        assertThat(random.count()).isEqualTo(rows);
+        assertThat(v7.count()).isEqualTo(rows);
+    }
+
+    private Result run(String table, Supplier<UUID> ids) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop table if exists " + table);
+                statement.execute("create table " + table + " (id uuid primary key, product_id uuid not null,"
+                        + " quantity int not null, status varchar(16) not null, created_at timestamptz not null)");
+            }
+            connection.setAutoCommit(false);
+
+            int tenth = Math.max(BATCH_SIZE, rows / 10);
+            long start = System.nanoTime();
+            long firstTenthNanos = 0;
+            long lastTenthStart = 0;
+            UUID productId = UUID.randomUUID();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into " + table + " (id, product_id, quantity, status, created_at) values (?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= rows; i++) {
+                    insert.setObject(1, ids.get());
+                    insert.setObject(2, productId);
+                    insert.setInt(3, 1);
+                    insert.setString(4, "CREATED");
+                    insert.setTimestamp(5, Timestamp.from(Instant.now()));
+                    insert.addBatch();
+                    if (i % BATCH_SIZE == 0 || i == rows) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                    if (i == tenth) {
+                        firstTenthNanos = System.nanoTime() - start;
+                    }
+                    if (i == rows - tenth) {
+                        lastTenthStart = System.nanoTime();
+                    }
+                }
+            }
+            long totalNanos = System.nanoTime() - start;
+            long lastTenthNanos = System.nanoTime() - lastTenthStart;
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("select count(*), pg_relation_size('" + table + "_pkey'),"
+                         + " pg_relation_size('" + table + "')")) {
+                rs.next();
+                Result result = new Result(table.endsWith("7") ? "uuidv7" : "uuidv4", rs.getLong(1),
+                        perSecond(rows, totalNanos), perSecond(tenth, firstTenthNanos),
+                        perSecond(tenth, lastTenthNanos), rs.getLong(2), rs.getLong(3));
+                connection.commit();
+                statement.execute("drop table " + table);
+                connection.commit();
+                return result;
+            }
+        }
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return count * 1_000_000_000L / Math.max(1, nanos);
+    }
+
+    private record Result(String name, long count, long rowsPerSecond, long firstTenthRowsPerSecond,
+                          long lastTenthRowsPerSecond, long indexBytes, long tableBytes) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.takapedia.product.cache;
+
+import com.takapedia.product.dto.ProductResponse;
+import com.takapedia.product.entity.Product;
+
+// Isi cache: response siap kirim plus versi untuk ETag, tanpa menyimpan entity JPA yang mutable
+public record CachedProduct(ProductResponse response, Long version) {
+
+    public static CachedProduct from(Product product) {
+        return new CachedProduct(ProductResponse.from(product), product.getVersion());
+    }
+}
@@ -0,0 +1,48 @@
+package com.takapedia.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Cache read-through GET produk per id. Dibatasi jumlah entry dan TTL; TTL hanya jaring pengaman,
+// invalidasi utama dari tulis lokal dan dari topic CDC (lihat ProductChangeListener) untuk node lain.
+// Metrics: cache.gets{cache=product,result=hit|miss}, cache.size, cache.evictions.
+@Component
+public class ProductCache {
+
+    private final Cache<UUID, CachedProduct> cache;
+
+    public ProductCache(@Value("${product.cache.max-size:100000}") long maxSize,
+                        @Value("${product.cache.ttl:10m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product");
+    }
+
+    // Load untuk id yang sama digabung (satu query meski banyak request bersamaan). Loader yang
+    // melempar exception (mis. produk tidak ada) tidak meninggalkan entry.
+    public CachedProduct get(UUID id, Function<UUID, CachedProduct> loader) {
+        return cache.get(id, loader);
+    }
+
+    // Invalidate yang datang saat load untuk id yang sama sedang berjalan menunggu load selesai,
+    // jadi hasil load lama tidak tertinggal di cache
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,57 @@
+package com.takapedia.product.cache;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.UUID;
+
+// Invalidasi lintas node dari topic CDC Debezium (infra/debezium/product-connector.json).
+// Group id unik per instance supaya setiap node menerima setiap perubahan; mulai dari offset terbaru
+// karena cache node yang baru start masih kosong.
+@Component
+public class ProductChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeListener.class);
+
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
+
+    public ProductChangeListener(ProductCache productCache, ObjectMapper objectMapper) {
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            topics = "${product.cache.cdc.topic:takapedia.public.products}",
+            groupId = "product-cache-${random.uuid}",
+            autoStartup = "${product.cache.cdc.enabled:true}",
+            properties = "auto.offset.reset=latest")
+    public void onChange(ConsumerRecord<String, String> record) {
+        UUID id = productId(record.key());
+        if (id != null) {
+            productCache.invalidate(id);
+        }
+    }
+
+    // Key Debezium (JsonConverter, schemas.enable=true): {"schema": {...}, "payload": {"id": "..."}}.
+    // Tanpa schema key langsung {"id": "..."}.
+    UUID productId(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(key);
+            JsonNode id = node.has("payload") ? node.path("payload").path("id") : node.path("id");
+            return id.isString() ? UUID.fromString(id.asString()) : null;
+        } catch (JacksonException | IllegalArgumentException e) {
+            log.warn("Key CDC produk tidak dikenali, dilewati: {}", key);
+            return null;
+        }
+    }
+}
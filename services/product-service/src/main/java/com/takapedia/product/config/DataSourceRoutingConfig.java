@@ -0,0 +1,78 @@
+package com.takapedia.product.config;
+
+import com.takapedia.product.datasource.ReadYourWritesTracker;
+import com.takapedia.product.datasource.ReplicaPool;
+import com.takapedia.product.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Aktif hanya kalau product.datasource.replicas diisi; tanpa replica DataSource tetap dari auto-config Boot.
+// Replica memakai username/password spring.datasource.
+@Configuration
+@ConditionalOnExpression("!'${product.datasource.replicas:}'.isBlank()")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReplicaPool replicaPool(DataSourceProperties properties, Environment environment,
+                                   @Value("${product.datasource.replicas}") String replicaUrls,
+                                   @Value("${product.datasource.max-lag:2s}") Duration maxLag,
+                                   @Value("${product.datasource.lag-query}") String lagQuery,
+                                   MeterRegistry meterRegistry) {
+        List<ReplicaPool.Replica> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = hikari(properties, Binder.get(environment), urls.get(i),
+                    "product-replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replicas.add(new ReplicaPool.Replica("replica-" + (i + 1), replica));
+        }
+        return new ReplicaPool(replicas, maxLag, lagQuery, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                             ReplicaPool replicaPool,
+                                                             @Value("${product.datasource.read-your-writes-window:0s}")
+                                                             Duration readYourWritesWindow,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = hikari(properties, Binder.get(environment), properties.determineUrl(),
+                "product-primary");
+        return new ReplicaRoutingDataSource(primary, replicaPool,
+                new ReadYourWritesTracker(readYourWritesWindow, 100_000), meterRegistry);
+    }
+
+    // Pool dibuat sendiri (bukan auto-config Boot), jadi spring.datasource.hikari.* di-bind manual.
+    // Nama pool selalu dari sini supaya primary dan tiap replica tetap bisa dibedakan di metrik.
+    static HikariDataSource hikari(DataSourceProperties properties, Binder binder, String url, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+
+    // DataSource yang dipakai JPA dan JdbcTemplate
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
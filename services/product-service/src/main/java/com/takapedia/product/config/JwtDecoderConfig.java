@@ -0,0 +1,46 @@
+package com.takapedia.product.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.takapedia.product.security.MultiAlgorithmKeySelector;
+import com.takapedia.product.security.MultiAlgorithmVerifierFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.Set;
+
+@Configuration
+public class JwtDecoderConfig {
+
+    // Semua algoritma yang bisa dihasilkan SigningKeyRing.algorithmOf di auth-service.
+    // Decoder bawaan Spring (jwk-set-uri saja) hanya menerima RS256 dan tidak bisa memakai kunci OKP (EdDSA).
+    static final Set<JWSAlgorithm> ALGORITHMS = Set.of(
+            JWSAlgorithm.RS256, JWSAlgorithm.RS384, JWSAlgorithm.RS512,
+            JWSAlgorithm.PS256, JWSAlgorithm.PS384, JWSAlgorithm.PS512,
+            JWSAlgorithm.ES256, JWSAlgorithm.ES384, JWSAlgorithm.ES512,
+            JWSAlgorithm.EdDSA);
+
+    // Fallback JWT (internal-auth.enabled=false atau header identitas internal tidak ada)
+    @Bean
+    public JwtDecoder jwtDecoder(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri)
+            throws MalformedURLException {
+        // JWKS di-cache dan di-refresh oleh Nimbus, bukan di-fetch per token
+        return decoder(JWKSourceBuilder.create(URI.create(jwkSetUri).toURL()).build());
+    }
+
+    static JwtDecoder decoder(JWKSource<SecurityContext> jwkSource) {
+        return NimbusJwtDecoder.withJwkSource(jwkSource)
+                .jwtProcessorCustomizer(processor -> {
+                    processor.setJWSKeySelector(new MultiAlgorithmKeySelector<>(ALGORITHMS, jwkSource));
+                    processor.setJWSVerifierFactory(new MultiAlgorithmVerifierFactory());
+                })
+                .build();
+    }
+}
@@ -1,48 +1,104 @@
 package com.takapedia.product.controller;
 
+import com.takapedia.product.cache.CachedProduct;
+import com.takapedia.product.dto.BulkProductReport;
 import com.takapedia.product.dto.CreateProductRequest;
+import com.takapedia.product.dto.PatchProductRequest;
 import com.takapedia.product.dto.ProductResponse;
 import com.takapedia.product.dto.UpdateProductRequest;
 import com.takapedia.product.entity.Product;
+import com.takapedia.product.exception.PreconditionRequiredException;
+import com.takapedia.product.service.ExportCursor;
+import com.takapedia.product.service.ProductBulkService;
+import com.takapedia.product.service.ProductExportService;
 import com.takapedia.product.service.ProductService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final ProductExportService productExportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBulkService productBulkService,
+                             ProductExportService productExportService) {
         this.productService = productService;
+        this.productBulkService = productBulkService;
+        this.productExportService = productExportService;
     }
 
     @Deprecated
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getById(@PathVariable UUID id) {
-        Product product = productService.getById(id);
-        return ResponseEntity.ok(ProductResponse.from(product));
+        CachedProduct product = productService.getCached(id);
+        return ResponseEntity.ok()
+                .eTag(product.version() != null ? String.valueOf(product.version()) : null)
+                .body(product.response());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductResponse> add(@Valid @RequestBody CreateProductRequest request) {
         Product product = productService.add(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(ProductResponse.from(product));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(etagOf(product)).body(ProductResponse.from(product));
+    }
+
+    // Body NDJSON dibaca sebagai stream (satu produk per baris), tidak dimuat utuh ke memori
+    @PostMapping(value = "/bulk", consumes = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkProductReport> bulkUpsert(InputStream body) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        return ResponseEntity.ok(productBulkService.upsert(reader));
+    }
+
+    // Seluruh katalog sebagai NDJSON, urut (createdAt, id). after = cursor dari baris terakhir yang diterima.
+    // Cursor divalidasi sebelum streaming dimulai supaya token rusak tetap dijawab 400.
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "0") long limit) {
+        ExportCursor cursor = ExportCursor.decode(after);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> productExportService.export(cursor, limit, out));
     }
 
+    // If-Match opsional untuk PUT (client lama tidak mengirimnya); kalau ada, 412 saat versi sudah berubah
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductResponse> update(@PathVariable UUID id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                   @Valid @RequestBody UpdateProductRequest request) {
-        Product product = productService.update(id, request);
-        return ResponseEntity.ok(ProductResponse.from(product));
+        Product product = productService.update(id, ifMatch != null ? expectedVersion(ifMatch) : null, request);
+        return ResponseEntity.ok().eTag(etagOf(product)).body(ProductResponse.from(product));
+    }
+
+    // Hanya field yang dikirim yang diubah. If-Match wajib (428 kalau kosong, 412 kalau versi sudah berubah);
+    // response tanpa body, ETag versi baru cukup untuk PATCH berikutnya.
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> patch(@PathVariable UUID id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                      @Valid @RequestBody PatchProductRequest request) {
+        long version = productService.patch(id, expectedVersion(ifMatch), request);
+        return ResponseEntity.noContent().eTag(String.valueOf(version)).build();
     }
 
     @DeleteMapping("/{id}")
@@ -51,4 +107,31 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static String etagOf(Product product) {
+        return product.getVersion() != null ? String.valueOf(product.getVersion()) : null;
+    }
+
+    // ETag = versi produk. "*" → tanpa cek versi (null). Weak ETag tidak berlaku untuk If-Match (strong comparison);
+    // nilai yang tidak dikenali jadi versi mustahil supaya berakhir 412, bukan update tanpa syarat.
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new PreconditionRequiredException();
+        }
+        if (ifMatch.trim().equals("*")) {
+            return null;
+        }
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                continue;
+            }
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // tag lain dicoba
+            }
+        }
+        return -1L;
+    }
+}
@@ -0,0 +1,30 @@
+package com.takapedia.product.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// User yang baru saja menulis dibaca dari primary selama window singkat, supaya tidak melihat
+// data lama dari replica yang tertinggal. Window 0 → nonaktif.
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void recordWrite(String user) {
+        if (recentWriters != null && user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPinned(String user) {
+        return recentWriters != null && user != null && recentWriters.getIfPresent(user) != null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.takapedia.product.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Replica Postgres untuk transaksi read-only. Round-robin hanya di antara replica yang sehat
+// dan lag-nya di bawah batas; status dan lag diperbarui health check berkala.
+public class ReplicaPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(List<Replica> replicas, Duration maxLag, String lagQuery, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        for (Replica replica : this.replicas) {
+            Gauge.builder("product.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("product.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    // null → tidak ada replica yang layak, pemanggil jatuh ke primary
+    public DataSource select() {
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.healthy && replica.lagMillis <= maxLag.toMillis()) {
+                return replica.dataSource();
+            }
+        }
+        return null;
+    }
+
+    // Replica mulai dalam status tidak sehat; check pertama jalan saat startup
+    @Scheduled(fixedDelayString = "${product.datasource.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                    rs.next();
+                    replica.lagMillis = rs.getLong(1);
+                }
+                if (!replica.healthy) {
+                    log.info("Replica {} sehat, lag {} ms", replica.name(), replica.lagMillis);
+                }
+                replica.healthy = true;
+            } catch (SQLException e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} tidak sehat, read diarahkan ke replica lain/primary: {}",
+                            replica.name(), e.toString());
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMillis;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+    }
+}
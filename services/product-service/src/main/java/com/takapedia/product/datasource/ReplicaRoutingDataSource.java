@@ -0,0 +1,116 @@
+package com.takapedia.product.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+// Transaksi read-only → replica (ReplicaPool), selain itu → primary. Harus dibungkus
+// LazyConnectionDataSourceProxy: koneksi baru diambil saat statement pertama, setelah flag
+// read-only transaksi terpasang (lihat DataSourceRoutingConfig).
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final ReplicaPool replicaPool;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter pinned;
+    private final Counter fallback;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicaPool, ReadYourWritesTracker readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicaPool = replicaPool;
+        this.readYourWrites = readYourWrites;
+        this.toPrimary = meterRegistry.counter("product.datasource.route", "target", "primary");
+        this.toReplica = meterRegistry.counter("product.datasource.route", "target", "replica");
+        this.pinned = meterRegistry.counter("product.datasource.route", "target", "primary_pinned");
+        this.fallback = meterRegistry.counter("product.datasource.route", "target", "primary_fallback");
+    }
+
+    // Untuk read yang harus melihat data terbaru walau transaksinya read-only
+    // (mis. mengisi cache setelah invalidasi)
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private DataSource target() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || FORCE_PRIMARY.get() != null) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                rememberWriter();
+            }
+            toPrimary.increment();
+            return primary;
+        }
+        if (readYourWrites.isPinned(currentUser())) {
+            pinned.increment();
+            return primary;
+        }
+        DataSource replica = replicaPool.select();
+        if (replica == null) {
+            fallback.increment();
+            return primary;
+        }
+        toReplica.increment();
+        return replica;
+    }
+
+    // Window read-your-writes dihitung sejak commit, bukan sejak transaksi mulai
+    private void rememberWriter() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite(user);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    // Hanya primary: pool replica milik ReplicaPool dan ditutup oleh bean-nya sendiri
+    @Override
+    public void close() throws Exception {
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
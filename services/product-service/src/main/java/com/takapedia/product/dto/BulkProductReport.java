@@ -0,0 +1,14 @@
+package com.takapedia.product.dto;
+
+import java.util.List;
+
+public record BulkProductReport(
+        long read,
+        long inserted,
+        long updated,
+        long rejected,
+        long elapsedMs,
+        long rowsPerSecond,
+        List<String> errors   // hanya sebagian pertama, supaya response tetap kecil
+) {
+}
@@ -0,0 +1,16 @@
+package com.takapedia.product.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+// Semua field opsional: hanya yang dikirim (tidak null) yang diubah
+public record PatchProductRequest(
+        @Pattern(regexp = ".*\\S.*") String name,
+        String description,
+        @Positive BigDecimal price,
+        String category,
+        String brand
+) {
+}
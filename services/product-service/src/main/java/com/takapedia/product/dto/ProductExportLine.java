@@ -0,0 +1,8 @@
+package com.takapedia.product.dto;
+
+// Satu baris NDJSON export. cursor = token untuk melanjutkan export setelah baris ini (?after=...)
+public record ProductExportLine(
+        String cursor,
+        ProductResponse product
+) {
+}
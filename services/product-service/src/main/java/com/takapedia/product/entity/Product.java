@@ -5,13 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+// Index untuk keyset export (created_at, id)
+@Table(name = "products", indexes = @Index(name = "idx_products_created_at_id", columnList = "created_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +21,7 @@ import java.util.UUID;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @Column(updatable = false, nullable = false)
     private UUID id;
 
@@ -40,4 +42,10 @@ public class Product {
 
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
+
+    // Optimistic locking; dikirim ke client sebagai ETag dan dicek lewat If-Match.
+    // Default di DDL supaya kolom bisa ditambahkan ke tabel yang sudah berisi.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
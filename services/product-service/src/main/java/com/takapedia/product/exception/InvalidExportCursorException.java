@@ -0,0 +1,8 @@
+package com.takapedia.product.exception;
+
+public class InvalidExportCursorException extends RuntimeException {
+
+    public InvalidExportCursorException() {
+        super("Cursor export tidak valid");
+    }
+}
@@ -0,0 +1,8 @@
+package com.takapedia.product.exception;
+
+public class PreconditionRequiredException extends RuntimeException {
+
+    public PreconditionRequiredException() {
+        super("Header If-Match wajib diisi dengan ETag produk");
+    }
+}
@@ -0,0 +1,17 @@
+package com.takapedia.product.exception;
+
+import java.util.UUID;
+
+public class ProductVersionMismatchException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public ProductVersionMismatchException(UUID productId, long currentVersion) {
+        super("Product " + productId + " sudah diubah, versi sekarang " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
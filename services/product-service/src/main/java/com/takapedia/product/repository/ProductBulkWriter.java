@@ -0,0 +1,85 @@
+package com.takapedia.product.repository;
+
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Tulis banyak produk lewat JDBC batch: satu round trip per chunk, tanpa persistence context Hibernate.
+// Baris ber-id di-UPDATE dulu; yang tidak menyentuh baris apa pun (id belum ada) ikut batch INSERT.
+@Repository
+public class ProductBulkWriter {
+
+    private static final String UPDATE =
+            "update products set name = ?, description = ?, price = ?, category = ?, brand = ?, version = version + 1"
+                    + " where id = ?";
+    private static final String INSERT =
+            "insert into products (id, name, description, price, category, brand, created_at, version)"
+                    + " values (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Satu chunk = satu transaksi. Id dalam satu chunk harus unik (dijamin pemanggil).
+    @Transactional
+    public Result upsert(List<ProductRow> rows, Instant now) {
+        List<ProductRow> inserts = new ArrayList<>();
+        List<Object[]> updateArgs = new ArrayList<>();
+        List<ProductRow> updates = new ArrayList<>();
+        for (ProductRow row : rows) {
+            if (row.id() == null) {
+                inserts.add(row);
+            } else {
+                updates.add(row);
+                updateArgs.add(new Object[]{row.name(), row.description(), row.price(), row.category(), row.brand(),
+                        row.id()});
+            }
+        }
+
+        int updated = 0;
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE, updateArgs);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    inserts.add(updates.get(i));
+                } else {
+                    updated++;
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            Timestamp createdAt = Timestamp.from(now);
+            List<Object[]> insertArgs = new ArrayList<>(inserts.size());
+            for (ProductRow row : inserts) {
+                UUID id = row.id() != null ? row.id() : newId();
+                insertArgs.add(new Object[]{id, row.name(), row.description(), row.price(), row.category(),
+                        row.brand(), createdAt});
+            }
+            jdbcTemplate.batchUpdate(INSERT, insertArgs);
+        }
+        return new Result(inserts.size(), updated);
+    }
+
+    // Sama dengan @UuidGenerator di entity Product
+    private static UUID newId() {
+        return UuidVersion7Strategy.INSTANCE.generateUuid(null);
+    }
+
+    public record ProductRow(UUID id, String name, String description, BigDecimal price, String category,
+                             String brand) {
+    }
+
+    public record Result(int inserted, int updated) {
+    }
+}
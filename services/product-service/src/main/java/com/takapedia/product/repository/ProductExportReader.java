@@ -0,0 +1,68 @@
+package com.takapedia.product.repository;
+
+import com.takapedia.product.dto.ProductResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Membaca satu halaman keyset (created_at, id) lewat cursor JDBC forward-only. Postgres hanya streaming
+// per fetch size kalau autocommit mati, makanya di dalam transaksi read-only; transaksi per halaman
+// supaya export katalog besar tidak menahan satu snapshot panjang.
+@Repository
+public class ProductExportReader {
+
+    private static final String COLUMNS = "select id, name, description, price, category, brand, created_at from products";
+    private static final String FIRST_PAGE = COLUMNS + " order by created_at, id limit ?";
+    private static final String NEXT_PAGE = COLUMNS
+            + " where (created_at, id) > (?, ?) order by created_at, id limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductExportReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // afterCreatedAt/afterId null → dari awal. Mengembalikan jumlah baris yang dibaca.
+    @Transactional(readOnly = true)
+    public int readPage(Instant afterCreatedAt, UUID afterId, int pageSize, int fetchSize,
+                        Consumer<ProductResponse> consumer) {
+        int[] count = {0};
+        RowCallbackHandler handler = rs -> {
+            consumer.accept(map(rs));
+            count[0]++;
+        };
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(afterId == null ? FIRST_PAGE : NEXT_PAGE,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            int i = 1;
+            if (afterId != null) {
+                statement.setTimestamp(i++, Timestamp.from(afterCreatedAt));
+                statement.setObject(i++, afterId);
+            }
+            statement.setInt(i, pageSize);
+            return statement;
+        }, handler);
+        return count[0];
+    }
+
+    private static ProductResponse map(ResultSet rs) throws SQLException {
+        return new ProductResponse(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBigDecimal("price"),
+                rs.getString("category"),
+                rs.getString("brand"),
+                rs.getTimestamp("created_at").toInstant());
+    }
+}
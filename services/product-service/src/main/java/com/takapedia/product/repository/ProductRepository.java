@@ -2,8 +2,59 @@ package com.takapedia.product.repository;
 
 import com.takapedia.product.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
+
+    // Partial update dalam satu statement: parameter null → kolom tidak diubah.
+    // expectedVersion null (If-Match: *) → tanpa cek versi. Mengembalikan 0 kalau id tidak ada atau versi beda.
+    @Transactional
+    @Modifying
+    @Query("""
+            update Product p set
+                p.name = coalesce(:name, p.name),
+                p.description = coalesce(:description, p.description),
+                p.price = coalesce(:price, p.price),
+                p.category = coalesce(:category, p.category),
+                p.brand = coalesce(:brand, p.brand),
+                p.version = p.version + 1
+            where p.id = :id and (:expectedVersion is null or p.version = :expectedVersion)
+            """)
+    int patch(@Param("id") UUID id,
+              @Param("expectedVersion") Long expectedVersion,
+              @Param("name") String name,
+              @Param("description") String description,
+              @Param("price") BigDecimal price,
+              @Param("category") String category,
+              @Param("brand") String brand);
+
+    // PUT: semua field diganti, versi dicek dan dinaikkan di statement yang sama (lihat patch)
+    @Transactional
+    @Modifying
+    @Query("""
+            update Product p set
+                p.name = :name,
+                p.description = :description,
+                p.price = :price,
+                p.category = :category,
+                p.brand = :brand,
+                p.version = p.version + 1
+            where p.id = :id and (:expectedVersion is null or p.version = :expectedVersion)
+            """)
+    int replace(@Param("id") UUID id,
+                @Param("expectedVersion") Long expectedVersion,
+                @Param("name") String name,
+                @Param("description") String description,
+                @Param("price") BigDecimal price,
+                @Param("category") String category,
+                @Param("brand") String brand);
+
+    @Query("select p.version from Product p where p.id = :id")
+    Long findVersionById(@Param("id") UUID id);
 }
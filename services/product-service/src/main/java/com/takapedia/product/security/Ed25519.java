@@ -0,0 +1,81 @@
+package com.takapedia.product.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.impl.BaseJWSProvider;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+
+// Verifikasi EdDSA (Ed25519) memakai provider JDK; Ed25519Verifier bawaan Nimbus butuh Google Tink yang tidak kita bawa
+public final class Ed25519 {
+
+    private static final String ALGORITHM = "Ed25519";
+    // Prefix DER tetap untuk kunci Ed25519 32 byte (RFC 8410)
+    private static final byte[] X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+    private static final int KEY_LENGTH = 32;
+
+    private Ed25519() {
+    }
+
+    public static PublicKey publicKey(OctetKeyPair jwk) throws JOSEException {
+        requireEd25519(jwk);
+        return decode(X509_PREFIX, jwk.getDecodedX());
+    }
+
+    public static JWSVerifier verifier(PublicKey publicKey) {
+        return new Verifier(publicKey);
+    }
+
+    private static void requireEd25519(OctetKeyPair jwk) throws JOSEException {
+        if (!Curve.Ed25519.equals(jwk.getCurve())) {
+            throw new JOSEException("Curve OKP tidak didukung: " + jwk.getCurve());
+        }
+    }
+
+    private static PublicKey decode(byte[] prefix, byte[] raw) throws JOSEException {
+        if (raw.length != KEY_LENGTH) {
+            throw new JOSEException("Panjang kunci Ed25519 harus " + KEY_LENGTH + " byte");
+        }
+        byte[] der = Arrays.copyOf(prefix, prefix.length + raw.length);
+        System.arraycopy(raw, 0, der, prefix.length, raw.length);
+        try {
+            return KeyFactory.getInstance(ALGORITHM).generatePublic(new X509EncodedKeySpec(der));
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Kunci Ed25519 tidak valid", e);
+        }
+    }
+
+    private static final class Verifier extends BaseJWSProvider implements JWSVerifier {
+
+        private final PublicKey publicKey;
+
+        Verifier(PublicKey publicKey) {
+            super(Set.of(JWSAlgorithm.EdDSA));
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+            try {
+                Signature verifier = Signature.getInstance(ALGORITHM);
+                verifier.initVerify(publicKey);
+                verifier.update(signingInput);
+                return verifier.verify(signature.decode());
+            } catch (GeneralSecurityException e) {
+                return false;
+            }
+        }
+    }
+}
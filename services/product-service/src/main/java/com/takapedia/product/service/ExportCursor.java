@@ -0,0 +1,34 @@
+package com.takapedia.product.service;
+
+import com.takapedia.product.exception.InvalidExportCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+// Posisi keyset (created_at, id) dari baris terakhir yang sudah diterima client, dikirim sebagai token opaque
+public record ExportCursor(Instant createdAt, UUID id) {
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // null/kosong → dari awal katalog
+    public static ExportCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(raw.substring(0, dot)),
+                    Long.parseLong(raw.substring(dot + 1, colon)));
+            return new ExportCursor(createdAt, UUID.fromString(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidExportCursorException();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.takapedia.product.service;
+
+import com.takapedia.product.cache.ProductCache;
+import com.takapedia.product.dto.BulkProductReport;
+import com.takapedia.product.repository.ProductBulkWriter;
+import com.takapedia.product.repository.ProductBulkWriter.ProductRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Bulk upsert produk dari NDJSON (satu produk per baris), dibaca streaming dan ditulis per chunk
+// lewat JDBC batch. Yang ada di memori hanya satu chunk, berapa pun besar file-nya.
+@Service
+public class ProductBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ProductBulkWriter productBulkWriter;
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ProductBulkService(ProductBulkWriter productBulkWriter,
+                              ProductCache productCache,
+                              ObjectMapper objectMapper,
+                              @Value("${product.bulk.chunk-size:1000}") int chunkSize) {
+        this.productBulkWriter = productBulkWriter;
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkProductReport upsert(BufferedReader input) {
+        Progress progress = new Progress(System.nanoTime());
+        Chunk chunk = new Chunk();
+        try {
+            String raw;
+            long lineNumber = 0;
+            while ((raw = input.readLine()) != null) {
+                lineNumber++;
+                if (raw.isBlank()) {
+                    continue;
+                }
+                progress.read++;
+                ProductRow row;
+                try {
+                    row = objectMapper.readValue(raw, ProductRow.class);
+                } catch (JacksonException e) {
+                    progress.reject(lineNumber, "JSON tidak valid");
+                    continue;
+                }
+                String error = validate(row);
+                if (error != null) {
+                    progress.reject(lineNumber, error);
+                    continue;
+                }
+                // Id yang sama dua kali dalam satu chunk akan bentrok di batch INSERT; flush dulu supaya
+                // baris yang belakangan tetap menang
+                if (row.id() != null && chunk.ids.contains(row.id())) {
+                    flush(chunk, progress);
+                }
+                chunk.add(lineNumber, row);
+                if (chunk.rows.size() >= chunkSize) {
+                    flush(chunk, progress);
+                }
+            }
+            flush(chunk, progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gagal membaca body bulk produk", e);
+        }
+
+        BulkProductReport report = progress.report();
+        log.info("Bulk produk selesai: {} dibaca, {} insert, {} update, {} ditolak dalam {} ms ({} baris/detik)",
+                report.read(), report.inserted(), report.updated(), report.rejected(), report.elapsedMs(),
+                report.rowsPerSecond());
+        return report;
+    }
+
+    private void flush(Chunk chunk, Progress progress) {
+        if (chunk.rows.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            ProductBulkWriter.Result result = productBulkWriter.upsert(chunk.rows, now);
+            progress.inserted += result.inserted();
+            progress.updated += result.updated();
+        } catch (DataAccessException e) {
+            // Satu baris rusak menggagalkan seluruh chunk; ulang per baris supaya error bisa ditunjuk per baris
+            log.warn("Chunk bulk produk gagal ({}), diulang per baris", e.getMostSpecificCause().toString());
+            for (int i = 0; i < chunk.rows.size(); i++) {
+                try {
+                    ProductBulkWriter.Result result = productBulkWriter.upsert(List.of(chunk.rows.get(i)), now);
+                    progress.inserted += result.inserted();
+                    progress.updated += result.updated();
+                } catch (DataAccessException rowError) {
+                    progress.reject(chunk.lineNumbers.get(i), "gagal disimpan");
+                }
+            }
+        }
+        // Setelah commit; id baru (tanpa id di input) belum mungkin ada di cache
+        chunk.ids.forEach(productCache::invalidate);
+        chunk.clear();
+    }
+
+    private static String validate(ProductRow row) {
+        if (row == null || row.name() == null || row.name().isBlank()) {
+            return "name wajib diisi";
+        }
+        if (row.price() == null || row.price().compareTo(BigDecimal.ZERO) <= 0) {
+            return "price harus lebih dari 0";
+        }
+        return null;
+    }
+
+    private static final class Chunk {
+
+        private final List<ProductRow> rows = new ArrayList<>();
+        private final List<Long> lineNumbers = new ArrayList<>();
+        private final Set<UUID> ids = new HashSet<>();
+
+        void add(long lineNumber, ProductRow row) {
+            rows.add(row);
+            lineNumbers.add(lineNumber);
+            if (row.id() != null) {
+                ids.add(row.id());
+            }
+        }
+
+        void clear() {
+            rows.clear();
+            lineNumbers.clear();
+            ids.clear();
+        }
+    }
+
+    private static final class Progress {
+
+        private final long startNanos;
+        private final List<String> errors = new ArrayList<>();
+        private long read;
+        private long inserted;
+        private long updated;
+        private long rejected;
+
+        Progress(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void reject(long lineNumber, String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("baris " + lineNumber + ": " + error);
+            }
+        }
+
+        BulkProductReport report() {
+            long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            return new BulkProductReport(read, inserted, updated, rejected, elapsedMs, read * 1000 / elapsedMs,
+                    List.copyOf(errors));
+        }
+    }
+}
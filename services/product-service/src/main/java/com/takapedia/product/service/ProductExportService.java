@@ -0,0 +1,79 @@
+package com.takapedia.product.service;
+
+import com.takapedia.product.dto.ProductExportLine;
+import com.takapedia.product.dto.ProductResponse;
+import com.takapedia.product.repository.ProductExportReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Export seluruh katalog sebagai NDJSON, halaman demi halaman secara keyset: memori konstan berapa pun
+// jumlah produk, dan tiap baris membawa cursor sehingga export yang putus bisa dilanjutkan.
+@Service
+public class ProductExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    private final ProductExportReader productExportReader;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final int fetchSize;
+
+    public ProductExportService(ProductExportReader productExportReader,
+                                ObjectMapper objectMapper,
+                                @Value("${product.export.page-size:10000}") int pageSize,
+                                @Value("${product.export.fetch-size:500}") int fetchSize) {
+        this.productExportReader = productExportReader;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.fetchSize = fetchSize;
+    }
+
+    // limit <= 0 → sampai habis. Mengembalikan jumlah baris yang ditulis.
+    public long export(ExportCursor after, long limit, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        OutputStream out = new BufferedOutputStream(output, 64 * 1024);
+        ExportCursor[] last = {after};
+        long written = 0;
+        try {
+            while (limit <= 0 || written < limit) {
+                int size = limit <= 0 ? pageSize : (int) Math.min(pageSize, limit - written);
+                ExportCursor from = last[0];
+                int read = productExportReader.readPage(
+                        from != null ? from.createdAt() : null, from != null ? from.id() : null,
+                        size, Math.min(fetchSize, size), product -> {
+                            last[0] = new ExportCursor(product.createdAt(), product.id());
+                            write(out, product, last[0]);
+                        });
+                written += read;
+                if (read < size) {
+                    break;
+                }
+                // Kirim halaman yang sudah lengkap selagi halaman berikutnya dibaca
+                out.flush();
+            }
+            out.flush();
+        } catch (UncheckedIOException e) {
+            // Client memutus koneksi; bisa dilanjutkan dari cursor baris terakhir yang diterima
+            throw e.getCause();
+        }
+        log.info("Export produk: {} baris dalam {} ms", written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    private void write(OutputStream out, ProductResponse product, ExportCursor cursor) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(new ProductExportLine(cursor.encode(), product)));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
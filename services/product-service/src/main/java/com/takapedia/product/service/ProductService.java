@@ -1,11 +1,19 @@
 package com.takapedia.product.service;
 
+import com.takapedia.product.cache.CachedProduct;
+import com.takapedia.product.cache.ProductCache;
+import com.takapedia.product.datasource.ReplicaRoutingDataSource;
 import com.takapedia.product.dto.CreateProductRequest;
+import com.takapedia.product.dto.PatchProductRequest;
 import com.takapedia.product.dto.UpdateProductRequest;
 import com.takapedia.product.entity.Product;
 import com.takapedia.product.exception.ProductNotFoundException;
+import com.takapedia.product.exception.ProductVersionMismatchException;
 import com.takapedia.product.repository.ProductRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -14,9 +22,11 @@ import java.util.UUID;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCache productCache) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
     }
 
     @Deprecated
@@ -24,6 +34,13 @@ public class ProductService {
         return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
     }
 
+    // Jalur GET /{id}: dari cache, database hanya saat miss. Miss dibaca dari primary: entry bertahan
+    // sampai TTL, jadi jangan sampai terisi data lama dari replica yang tertinggal.
+    public CachedProduct getCached(UUID id) {
+        return productCache.get(id, key ->
+                ReplicaRoutingDataSource.onPrimary(() -> CachedProduct.from(getById(key))));
+    }
+
     public Product add(CreateProductRequest request) {
         Product product = new Product();
         product.setName(request.name());
@@ -35,17 +52,57 @@ public class ProductService {
         return productRepository.save(product);
     }
 
-    public Product update(UUID id, UpdateProductRequest request) {
-        Product product = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
-        product.setName(request.name());
-        product.setDescription(request.description());
-        product.setPrice(request.price());
-        product.setCategory(request.category());
-        product.setBrand(request.brand());
-        return productRepository.save(product);
+    // UPDATE ber-syarat versi seperti patch, bukan load lalu save: PUT yang bersamaan tidak berakhir
+    // ObjectOptimisticLockingFailureException (500). expectedVersion null (tanpa If-Match / "*") → last write wins.
+    // Satu transaksi tulis supaya findById sesudahnya ikut ke primary, bukan ke replica.
+    @Transactional
+    public Product update(UUID id, Long expectedVersion, UpdateProductRequest request) {
+        int updated = productRepository.replace(id, expectedVersion,
+                request.name(), request.description(), request.price(), request.category(), request.brand());
+        if (updated == 0) {
+            Long currentVersion = productRepository.findVersionById(id);
+            if (currentVersion == null) {
+                throw new ProductNotFoundException(id);
+            }
+            throw new ProductVersionMismatchException(id, currentVersion);
+        }
+        invalidateAfterCommit(id);
+        return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
+    }
+
+    // Satu UPDATE ber-syarat versi, tanpa findById. Query tambahan hanya di jalur gagal untuk
+    // membedakan 404 dan 412. Mengembalikan versi baru (untuk ETag).
+    public long patch(UUID id, Long expectedVersion, PatchProductRequest request) {
+        int updated = productRepository.patch(id, expectedVersion,
+                request.name(), request.description(), request.price(), request.category(), request.brand());
+        if (updated == 1) {
+            invalidateAfterCommit(id);
+            return expectedVersion != null ? expectedVersion + 1 : productRepository.findVersionById(id);
+        }
+        Long currentVersion = productRepository.findVersionById(id);
+        if (currentVersion == null) {
+            throw new ProductNotFoundException(id);
+        }
+        throw new ProductVersionMismatchException(id, currentVersion);
     }
 
     public void delete(UUID id) {
         productRepository.deleteById(id);
+        invalidateAfterCommit(id);
+    }
+
+    // Invalidasi sebelum commit membuka celah: miss di antaranya membaca baris lama dari primary
+    // dan menyimpannya sampai TTL. Di dalam transaksi, tunda sampai commit.
+    private void invalidateAfterCommit(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productCache.invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productCache.invalidate(id);
+            }
+        });
     }
 }
@@ -0,0 +1,86 @@
+package com.takapedia.product.cache;
+
+import com.takapedia.product.dto.ProductResponse;
+import com.takapedia.product.exception.ProductNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductCache cache = new ProductCache(100, Duration.ofMinutes(1), meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_loadsOnceThenServesFromCache() {
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, this::load);
+        CachedProduct second = cache.get(id, this::load);
+
+        assertThat(second.response().id()).isEqualTo(id);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "product").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "product").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, this::load);
+
+        cache.invalidate(id);
+        cache.get(id, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_whenLoaderThrows_doesNotCacheMissingProduct() {
+        UUID id = UUID.randomUUID();
+
+        assertThatThrownBy(() -> cache.get(id, key -> {
+            throw new ProductNotFoundException(key);
+        })).isInstanceOf(ProductNotFoundException.class);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void changeListener_invalidatesIdFromDebeziumKey() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, this::load);
+        ProductChangeListener listener = new ProductChangeListener(cache, JsonMapper.builder().build());
+
+        String key = """
+                {"schema": {"type": "struct", "fields": [{"type": "string", "field": "id"}]},
+                 "payload": {"id": "%s"}}
+                """.formatted(id);
+        assertThat(listener.productId(key)).isEqualTo(id);
+        assertThat(listener.productId("{\"id\": \"" + id + "\"}")).isEqualTo(id);
+        assertThat(listener.productId("bukan json")).isNull();
+
+        listener.onChange(new ConsumerRecord<>(
+                "takapedia.public.products", 0, 0L, key, null));
+        assertThat(cache.size()).isZero();
+    }
+
+    private CachedProduct load(UUID id) {
+        loads.incrementAndGet();
+        return new CachedProduct(new ProductResponse(id, "Laptop", null, new BigDecimal("15000000.00"),
+                "Electronics", "Asus", Instant.now()), 0L);
+    }
+}
@@ -0,0 +1,34 @@
+package com.takapedia.product.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceRoutingConfigTest {
+
+    @Test
+    void hikari_bindsSpringDatasourceHikariProperties() throws Exception {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUsername("takapedia");
+        properties.afterPropertiesSet();
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+                "spring.datasource.hikari.maximum-pool-size", "7",
+                "spring.datasource.hikari.connection-timeout", "1500",
+                "spring.datasource.hikari.pool-name", "ignored")));
+
+        try (HikariDataSource dataSource = DataSourceRoutingConfig.hikari(properties, binder,
+                "jdbc:h2:mem:replica", "product-replica-1")) {
+            assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+            assertThat(dataSource.getConnectionTimeout()).isEqualTo(1500);
+            assertThat(dataSource.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica");
+            assertThat(dataSource.getUsername()).isEqualTo("takapedia");
+            assertThat(dataSource.getPoolName()).isEqualTo("product-replica-1");
+        }
+    }
+}
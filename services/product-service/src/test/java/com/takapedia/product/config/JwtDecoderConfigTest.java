@@ -0,0 +1,103 @@
+package com.takapedia.product.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtDecoderConfigTest {
+
+    static RSAKey rsa;
+    static ECKey ec;
+    static ECKey ec384;
+    static KeyPair edKeyPair;
+    static JwtDecoder decoder;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        ec = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+        ec384 = new ECKeyGenerator(Curve.P_384).keyID("ec-384").generate();
+        edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        byte[] x = edKeyPair.getPublic().getEncoded();
+        OctetKeyPair ed = new OctetKeyPair.Builder(Curve.Ed25519,
+                Base64URL.encode(Arrays.copyOfRange(x, x.length - 32, x.length)))
+                .keyID("ed-1")
+                .build();
+        decoder = JwtDecoderConfig.decoder(new ImmutableJWKSet<>(new JWKSet(List.<JWK>of(
+                rsa.toPublicJWK(), ec.toPublicJWK(), ec384.toPublicJWK(), ed))));
+    }
+
+    @Test
+    void rs256() throws Exception {
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.RS256, "rsa-1"), claims());
+        jwt.sign(new RSASSASigner(rsa));
+
+        assertThat(decoder.decode(jwt.serialize()).getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void es256() throws Exception {
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.ES256, "ec-1"), claims());
+        jwt.sign(new ECDSASigner(ec));
+
+        assertThat(decoder.decode(jwt.serialize()).getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void es384() throws Exception {
+        SignedJWT jwt = new SignedJWT(header(JWSAlgorithm.ES384, "ec-384"), claims());
+        jwt.sign(new ECDSASigner(ec384));
+
+        assertThat(decoder.decode(jwt.serialize()).getSubject()).isEqualTo("user-1");
+    }
+
+    @Test
+    void eddsa() throws Exception {
+        String signingInput = header(JWSAlgorithm.EdDSA, "ed-1").toBase64URL() + "." + claims().toPayload().toBase64URL();
+        Signature signature = Signature.getInstance("Ed25519");
+        signature.initSign(edKeyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(decoder.decode(signingInput + "." + Base64URL.encode(signature.sign())).getSubject())
+                .isEqualTo("user-1");
+    }
+
+    private static JWSHeader header(JWSAlgorithm algorithm, String kid) {
+        return new JWSHeader.Builder(algorithm).keyID(kid).build();
+    }
+
+    private static JWTClaimsSet claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .claim("role", "USER")
+                .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                .build();
+    }
+}
@@ -1,28 +1,39 @@
 package com.takapedia.product.controller;
 
+import com.takapedia.product.cache.CachedProduct;
+import com.takapedia.product.dto.BulkProductReport;
 import com.takapedia.product.dto.CreateProductRequest;
+import com.takapedia.product.dto.PatchProductRequest;
 import com.takapedia.product.dto.UpdateProductRequest;
 import com.takapedia.product.entity.Product;
 import com.takapedia.product.exception.ProductNotFoundException;
+import com.takapedia.product.exception.ProductVersionMismatchException;
+import com.takapedia.product.service.ProductBulkService;
+import com.takapedia.product.service.ProductExportService;
 import com.takapedia.product.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +47,12 @@ class ProductControllerTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductBulkService productBulkService;
+
+    @MockitoBean
+    private ProductExportService productExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,12 +62,13 @@ class ProductControllerTest {
         Product product = new Product(
                 id, "Laptop", "Gaming laptop",
                 new BigDecimal("15000000.00"),
-                "Electronics", "Asus", Instant.now()
+                "Electronics", "Asus", Instant.now(), 0L
         );
-        when(productService.getById(id)).thenReturn(product);
+        when(productService.getCached(id)).thenReturn(CachedProduct.from(product));
 
         mockMvc.perform(get("/api/v1/products/{id}", id))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
                 .andExpect(jsonPath("$.name").value("Laptop"))
                 .andExpect(jsonPath("$.price").value(15000000.00));
     }
@@ -58,7 +76,7 @@ class ProductControllerTest {
     @Test
     void getById_whenProductNotFound_returns404() throws Exception {
         UUID id = UUID.randomUUID();
-        when(productService.getById(id)).thenThrow(new ProductNotFoundException(id));
+        when(productService.getCached(id)).thenThrow(new ProductNotFoundException(id));
 
         mockMvc.perform(get("/api/v1/products/{id}", id))
                 .andExpect(status().isNotFound());
@@ -74,7 +92,7 @@ class ProductControllerTest {
         Product saved = new Product(
                 id, "Laptop", "Gaming laptop",
                 new BigDecimal("15000000.00"), "Electronics", "Asus",
-                Instant.now()
+                Instant.now(), 0L
         );
         when(productService.add(any(CreateProductRequest.class))).thenReturn(saved);
 
@@ -108,9 +126,9 @@ class ProductControllerTest {
         Product updated = new Product(
                 id, "Laptop Pro", "Updated",
                 new BigDecimal("20000000.00"), "Electronics", "Asus",
-                Instant.now()
+                Instant.now(), 3L
         );
-        when(productService.update(eq(id), any(UpdateProductRequest.class))).thenReturn(updated);
+        when(productService.update(eq(id), isNull(), any(UpdateProductRequest.class))).thenReturn(updated);
 
         mockMvc.perform(put("/api/v1/products/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -126,7 +144,7 @@ class ProductControllerTest {
                 "Laptop Pro", "Updated", new BigDecimal("20000000.00"),
                 "Electronics", "Asus"
         );
-        when(productService.update(eq(id), any(UpdateProductRequest.class)))
+        when(productService.update(eq(id), isNull(), any(UpdateProductRequest.class)))
                 .thenThrow(new ProductNotFoundException(id));
 
         mockMvc.perform(put("/api/v1/products/{id}", id)
@@ -135,6 +153,33 @@ class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void update_withStaleIfMatch_returns412WithCurrentETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        UpdateProductRequest request = new UpdateProductRequest(
+                "Laptop Pro", "Updated", new BigDecimal("20000000.00"),
+                "Electronics", "Asus"
+        );
+        when(productService.update(eq(id), eq(2L), any(UpdateProductRequest.class)))
+                .thenThrow(new ProductVersionMismatchException(id, 3L));
+
+        mockMvc.perform(put("/api/v1/products/{id}", id)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void delete_whenConcurrentlyModified_returns409() throws Exception {
+        UUID id = UUID.randomUUID();
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, id)).when(productService).delete(id);
+
+        mockMvc.perform(delete("/api/v1/products/{id}", id))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void delete_returns204() throws Exception {
         UUID id = UUID.randomUUID();
@@ -144,4 +189,67 @@ class ProductControllerTest {
 
         verify(productService).delete(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkUpsert_streamsNdjsonBodyToService() throws Exception {
+        when(productBulkService.upsert(any())).thenReturn(
+                new BulkProductReport(2, 1, 1, 0, 5, 400, List.of()));
+
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"A\",\"price\":1}\n{\"name\":\"B\",\"price\":2}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(1));
+    }
+
+    @Test
+    void patch_withIfMatch_returns204WithNewEtag() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(productService.patch(eq(id), eq(3L), any(PatchProductRequest.class))).thenReturn(4L);
+
+        mockMvc.perform(patch("/api/v1/products/{id}", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 14000000}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void patch_withoutIfMatch_returns428() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/{id}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 14000000}"))
+                .andExpect(status().isPreconditionRequired());
+    }
+
+    @Test
+    void patch_whenVersionChanged_returns412WithCurrentEtag() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(productService.patch(eq(id), eq(3L), any(PatchProductRequest.class)))
+                .thenThrow(new ProductVersionMismatchException(id, 5L));
+
+        mockMvc.perform(patch("/api/v1/products/{id}", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 14000000}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    void patch_withInvalidPrice_returns400() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/{id}", UUID.randomUUID())
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": -1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_withInvalidCursor_returns400BeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/v1/products/export").param("after", "bukan-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
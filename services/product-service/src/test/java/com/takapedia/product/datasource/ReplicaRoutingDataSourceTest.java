@@ -0,0 +1,111 @@
+package com.takapedia.product.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasRoundRobin() {
+        Routing routing = routing(Duration.ZERO, "select 0", database("replica-a"), database("replica-b"));
+
+        assertThat(List.of(routing.read(), routing.read(), routing.read(), routing.read()))
+                .containsExactlyInAnyOrder("replica-a", "replica-b", "replica-a", "replica-b");
+        assertThat(routing.write()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingOrUnreachableReplicasAreSkipped() {
+        // Lag 5000 ms > batas 2s → dilewati, read jatuh ke primary
+        Routing lagging = routing(Duration.ZERO, "select 5000", database("replica-a"));
+        assertThat(lagging.read()).isEqualTo("primary");
+
+        Routing broken = routing(Duration.ZERO, "select * from tabel_tidak_ada", database("replica-a"));
+        assertThat(broken.read()).isEqualTo("primary");
+    }
+
+    @Test
+    void readAfterOwnWriteIsPinnedToPrimary() {
+        Routing routing = routing(Duration.ofMinutes(1), "select 0", database("replica-a"));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin-1", null, List.of()));
+
+        assertThat(routing.read()).isEqualTo("replica-a");
+        routing.write();
+        assertThat(routing.read()).isEqualTo("primary");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin-2", null, List.of()));
+        assertThat(routing.read()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyRouting() {
+        Routing routing = routing(Duration.ZERO, "select 0", database("replica-a"));
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(routing::read)).isEqualTo("primary");
+        assertThat(routing.read()).isEqualTo("replica-a");
+    }
+
+    private Routing routing(Duration readYourWritesWindow, String lagQuery, DataSource... replicas) {
+        List<ReplicaPool.Replica> pool = new ArrayList<>();
+        for (int i = 0; i < replicas.length; i++) {
+            pool.add(new ReplicaPool.Replica("replica-" + i, replicas[i]));
+        }
+        ReplicaPool replicaPool = new ReplicaPool(pool, Duration.ofSeconds(2), lagQuery, meterRegistry);
+        replicaPool.checkHealth();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(database("primary"),
+                replicaPool, new ReadYourWritesTracker(readYourWritesWindow, 100), meterRegistry));
+        return new Routing(dataSource);
+    }
+
+    // Tiap database H2 terpisah berisi satu baris penanda namanya sendiri
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table marker (name varchar(32))");
+        jdbc.update("insert into marker values (?)", name);
+        return dataSource;
+    }
+
+    private record Routing(DataSource dataSource) {
+
+        String read() {
+            return query(true);
+        }
+
+        String write() {
+            return query(false);
+        }
+
+        private String query(boolean readOnly) {
+            TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            tx.setReadOnly(readOnly);
+            return tx.execute(status ->
+                    new JdbcTemplate(dataSource).queryForObject("select name from marker", String.class));
+        }
+    }
+}
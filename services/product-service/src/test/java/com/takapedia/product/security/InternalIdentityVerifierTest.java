@@ -0,0 +1,77 @@
+package com.takapedia.product.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalIdentityVerifierTest {
+
+    static final String SECRET = "test-internal-secret-0123456789abcdef";
+    static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    InternalIdentityVerifier verifier = new InternalIdentityVerifier(true, SECRET, Duration.ofSeconds(5),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void verify_validHeader_returnsIdentity() {
+        String header = sign(SECRET, "user-1|ADMIN|" + NOW.plusSeconds(30).getEpochSecond());
+
+        assertThat(verifier.verify(header))
+                .contains(new InternalIdentityVerifier.InternalIdentity("user-1", "ADMIN"));
+    }
+
+    @Test
+    void verify_differentSecret_isRejected() {
+        String header = sign("another-secret-0123456789abcdefghij", "user-1|ADMIN|" + NOW.plusSeconds(30).getEpochSecond());
+
+        assertThat(verifier.verify(header)).isEmpty();
+    }
+
+    @Test
+    void verify_tamperedPayload_isRejected() {
+        String header = sign(SECRET, "user-1|USER|" + NOW.plusSeconds(30).getEpochSecond());
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("user-1|ADMIN|" + NOW.plusSeconds(30).getEpochSecond()).getBytes(StandardCharsets.UTF_8))
+                + header.substring(header.indexOf('.'));
+
+        assertThat(verifier.verify(forged)).isEmpty();
+    }
+
+    @Test
+    void verify_expired_isRejectedAfterSkew() {
+        assertThat(verifier.verify(sign(SECRET, "user-1|USER|" + NOW.minusSeconds(3).getEpochSecond()))).isPresent();
+        assertThat(verifier.verify(sign(SECRET, "user-1|USER|" + NOW.minusSeconds(10).getEpochSecond()))).isEmpty();
+    }
+
+    @Test
+    void verify_malformedHeaderOrDisabled_returnsEmpty() {
+        InternalIdentityVerifier disabled = new InternalIdentityVerifier(false, "", Duration.ofSeconds(5));
+
+        assertThat(verifier.verify(null)).isEmpty();
+        assertThat(verifier.verify("bukan-header")).isEmpty();
+        assertThat(verifier.verify("!!!.???")).isEmpty();
+        assertThat(disabled.verify(sign(SECRET, "user-1|USER|" + NOW.plusSeconds(30).getEpochSecond()))).isEmpty();
+    }
+
+    // Format yang sama dengan InternalIdentitySigner di api-gateway
+    private static String sign(String secret, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            return encoder.encodeToString(bytes) + "." + encoder.encodeToString(mac.doFinal(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
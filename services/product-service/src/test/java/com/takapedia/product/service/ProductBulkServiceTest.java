@@ -0,0 +1,128 @@
+package com.takapedia.product.service;
+
+import com.takapedia.product.cache.ProductCache;
+import com.takapedia.product.dto.BulkProductReport;
+import com.takapedia.product.entity.Product;
+import com.takapedia.product.repository.ProductBulkWriter;
+import com.takapedia.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tanpa transaksi test: tiap chunk harus commit/rollback sendiri seperti di produksi
+@DataJpaTest
+@Import(ProductBulkWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkServiceTest {
+
+    @Autowired
+    private ProductBulkWriter productBulkWriter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private ProductBulkService productBulkService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        // Chunk kecil supaya beberapa chunk terlewati
+        productBulkService = new ProductBulkService(productBulkWriter,
+                new ProductCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), JsonMapper.builder().build(), 2);
+    }
+
+    @Test
+    void shouldInsertNewAndUpdateExistingProducts() {
+        Product existing = productRepository.saveAndFlush(new Product(null, "Laptop", null,
+                new BigDecimal("15000000.00"), "Electronics", "Asus", Instant.parse("2024-01-01T00:00:00Z"), null));
+        UUID syncedId = UUID.randomUUID();
+
+        String ndjson = """
+                {"name": "Mouse", "price": 150000}
+                {"id": "%s", "name": "Laptop Pro", "price": 20000000, "brand": "Asus"}
+
+                {"id": "%s", "name": "Keyboard", "price": 450000, "category": "Accessories"}
+                """.formatted(existing.getId(), syncedId);
+
+        BulkProductReport report = productBulkService.upsert(reader(ndjson));
+
+        assertThat(report.read()).isEqualTo(3);
+        assertThat(report.inserted()).isEqualTo(2);
+        assertThat(report.updated()).isEqualTo(1);
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Laptop Pro");
+        assertThat(updated.getCreatedAt()).isEqualTo(Instant.parse("2024-01-01T00:00:00Z"));
+        assertThat(productRepository.findById(syncedId).orElseThrow().getCategory()).isEqualTo("Accessories");
+        // Id yang dibuat server UUIDv7, sama seperti lewat entity
+        assertThat(productRepository.findAll()).extracting(p -> p.getId().version()).contains(7);
+    }
+
+    @Test
+    void shouldKeepLastLineWhenSameIdRepeats() {
+        UUID id = UUID.randomUUID();
+        String ndjson = """
+                {"id": "%1$s", "name": "Versi 1", "price": 1000}
+                {"id": "%1$s", "name": "Versi 2", "price": 2000}
+                """.formatted(id);
+
+        BulkProductReport report = productBulkService.upsert(reader(ndjson));
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(productRepository.findById(id).orElseThrow().getName()).isEqualTo("Versi 2");
+    }
+
+    @Test
+    void shouldRejectInvalidLinesAndReportLineNumbers() {
+        String ndjson = """
+                {"name": "Valid", "price": 1000}
+                bukan json
+                {"name": "", "price": 1000}
+                {"name": "Gratis", "price": 0}
+                {"id": "bukan-uuid", "name": "X", "price": 1000}
+                """;
+
+        BulkProductReport report = productBulkService.upsert(reader(ndjson));
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThat(report.errors()).containsExactly(
+                "baris 2: JSON tidak valid",
+                "baris 3: name wajib diisi",
+                "baris 4: price harus lebih dari 0",
+                "baris 5: JSON tidak valid");
+    }
+
+    @Test
+    void shouldIsolateRowThatFailsInDatabase() {
+        String ndjson = """
+                {"name": "Normal", "price": 1000}
+                {"name": "Harga kebesaran", "price": 1e30}
+                """;
+
+        BulkProductReport report = productBulkService.upsert(reader(ndjson));
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.errors()).containsExactly("baris 2: gagal disimpan");
+        assertThat(productRepository.findAll()).extracting(Product::getName).containsExactly("Normal");
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+}
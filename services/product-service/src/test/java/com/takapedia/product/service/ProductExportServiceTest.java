@@ -0,0 +1,110 @@
+package com.takapedia.product.service;
+
+import com.takapedia.product.entity.Product;
+import com.takapedia.product.exception.InvalidExportCursorException;
+import com.takapedia.product.repository.ProductExportReader;
+import com.takapedia.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(ProductExportReader.class)
+class ProductExportServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired
+    private ProductExportReader productExportReader;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    void setUp() {
+        // Halaman kecil supaya export melewati beberapa query keyset
+        productExportService = new ProductExportService(productExportReader, jsonMapper, 2, 1);
+        // Dua produk dengan created_at sama: urutan ditentukan id
+        save("A", T0);
+        save("B", T0.plusSeconds(1));
+        save("C", T0.plusSeconds(1));
+        save("D", T0.plusSeconds(2));
+        save("E", T0.plusSeconds(3));
+    }
+
+    @Test
+    void export_writesWholeCatalogInKeysetOrder() throws Exception {
+        List<JsonNode> lines = export(null, 0);
+
+        assertThat(lines).hasSize(5);
+        List<String> keys = lines.stream()
+                .map(line -> line.path("product").path("createdAt").asString() + "/"
+                        + line.path("product").path("id").asString())
+                .toList();
+        assertThat(keys).isSortedAccordingTo(this::compareKeys);
+    }
+
+    @Test
+    void export_resumesAfterCursorWithoutDuplicatesOrGaps() throws Exception {
+        List<JsonNode> all = export(null, 0);
+
+        List<JsonNode> firstPart = export(null, 3);
+        ExportCursor cursor = ExportCursor.decode(firstPart.getLast().path("cursor").asString());
+        List<JsonNode> rest = export(cursor, 0);
+
+        assertThat(firstPart).hasSize(3);
+        assertThat(rest).extracting(line -> line.path("product").path("id").asString())
+                .containsExactlyElementsOf(all.subList(3, 5).stream()
+                        .map(line -> line.path("product").path("id").asString())
+                        .toList());
+    }
+
+    @Test
+    void decode_rejectsGarbageCursor() {
+        assertThatThrownBy(() -> ExportCursor.decode("bukan-cursor"))
+                .isInstanceOf(InvalidExportCursorException.class);
+        ExportCursor cursor = new ExportCursor(T0.plusNanos(123_000), UUID.randomUUID());
+        assertThat(ExportCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    private List<JsonNode> export(ExportCursor after, long limit) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productExportService.export(after, limit, out);
+        return Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .filter(line -> !line.isBlank())
+                .map(jsonMapper::readTree)
+                .toList();
+    }
+
+    private int compareKeys(String a, String b) {
+        String[] left = a.split("/");
+        String[] right = b.split("/");
+        int byTime = Instant.parse(left[0]).compareTo(Instant.parse(right[0]));
+        // Database mengurutkan uuid per byte unsigned = urutan string hex, bukan UUID.compareTo (signed)
+        return byTime != 0 ? byTime : left[1].compareTo(right[1]);
+    }
+
+    private void save(String name, Instant createdAt) {
+        productRepository.saveAndFlush(new Product(null, name, null, new BigDecimal("1000.00"), null, null,
+                createdAt, null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.takapedia.product.service;
+
+import com.takapedia.product.cache.ProductCache;
+import com.takapedia.product.dto.PatchProductRequest;
+import com.takapedia.product.dto.UpdateProductRequest;
+import com.takapedia.product.entity.Product;
+import com.takapedia.product.exception.ProductNotFoundException;
+import com.takapedia.product.exception.ProductVersionMismatchException;
+import com.takapedia.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Tanpa transaksi test supaya hasil UPDATE dibaca ulang dari database, bukan dari persistence context
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServicePatchTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductCache productCache;
+
+    private ProductService productService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productCache = new ProductCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        productService = new ProductService(productRepository, productCache);
+        product = productRepository.save(new Product(null, "Laptop", "Gaming laptop",
+                new BigDecimal("15000000.00"), "Electronics", "Asus", Instant.now(), null));
+    }
+
+    @Test
+    void patch_onlyTouchesGivenFieldsAndBumpsVersion() {
+        long version = productService.patch(product.getId(), product.getVersion(),
+                new PatchProductRequest(null, null, new BigDecimal("14000000.00"), null, null));
+
+        assertThat(version).isEqualTo(product.getVersion() + 1);
+        Product patched = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(patched.getPrice()).isEqualByComparingTo("14000000.00");
+        assertThat(patched.getName()).isEqualTo("Laptop");
+        assertThat(patched.getDescription()).isEqualTo("Gaming laptop");
+        assertThat(patched.getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void patch_withStaleVersion_throwsMismatchWithCurrentVersion() {
+        productService.patch(product.getId(), product.getVersion(),
+                new PatchProductRequest(null, null, new BigDecimal("14000000.00"), null, null));
+
+        assertThatThrownBy(() -> productService.patch(product.getId(), product.getVersion(),
+                new PatchProductRequest(null, null, new BigDecimal("13000000.00"), null, null)))
+                .isInstanceOf(ProductVersionMismatchException.class)
+                .extracting(e -> ((ProductVersionMismatchException) e).getCurrentVersion())
+                .isEqualTo(product.getVersion() + 1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getPrice())
+                .isEqualByComparingTo("14000000.00");
+    }
+
+    @Test
+    void patch_withWildcard_skipsVersionCheck() {
+        long version = productService.patch(product.getId(), null,
+                new PatchProductRequest("Laptop Pro", null, null, null, null));
+
+        assertThat(version).isEqualTo(product.getVersion() + 1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getName()).isEqualTo("Laptop Pro");
+    }
+
+    @Test
+    void patch_whenProductNotFound_throwsProductNotFoundException() {
+        assertThatThrownBy(() -> productService.patch(UUID.randomUUID(), 0L,
+                new PatchProductRequest("X", null, null, null, null)))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    void update_withoutIfMatch_lastWriteWinsAndBumpsVersion() {
+        // Dua PUT dari pembacaan yang sama: tidak ada lagi ObjectOptimisticLockingFailureException
+        productService.update(product.getId(), null, new UpdateProductRequest(
+                "Laptop A", null, new BigDecimal("14000000.00"), "Electronics", "Asus"));
+        Product updated = productService.update(product.getId(), null, new UpdateProductRequest(
+                "Laptop B", null, new BigDecimal("13000000.00"), "Electronics", "Asus"));
+
+        assertThat(updated.getName()).isEqualTo("Laptop B");
+        assertThat(updated.getDescription()).isNull();
+        assertThat(updated.getVersion()).isEqualTo(product.getVersion() + 2);
+    }
+
+    @Test
+    void update_withStaleVersion_throwsMismatchWithCurrentVersion() {
+        productService.update(product.getId(), product.getVersion(), new UpdateProductRequest(
+                "Laptop A", "Gaming laptop", new BigDecimal("14000000.00"), "Electronics", "Asus"));
+
+        assertThatThrownBy(() -> productService.update(product.getId(), product.getVersion(), new UpdateProductRequest(
+                "Laptop B", "Gaming laptop", new BigDecimal("13000000.00"), "Electronics", "Asus")))
+                .isInstanceOf(ProductVersionMismatchException.class)
+                .extracting(e -> ((ProductVersionMismatchException) e).getCurrentVersion())
+                .isEqualTo(product.getVersion() + 1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getName()).isEqualTo("Laptop A");
+    }
+
+    @Test
+    void update_invalidatesCacheOnlyAfterCommit() {
+        productService.getCached(product.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.update(product.getId(), null, new UpdateProductRequest(
+                    "Laptop A", null, new BigDecimal("14000000.00"), "Electronics", "Asus"));
+            // Belum commit: miss di titik ini akan membaca baris lama
+            assertThat(productCache.size()).isEqualTo(1);
+        });
+
+        assertThat(productCache.size()).isZero();
+        assertThat(productService.getCached(product.getId()).response().name()).isEqualTo("Laptop A");
+    }
+}
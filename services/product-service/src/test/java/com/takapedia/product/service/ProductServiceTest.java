@@ -1,9 +1,11 @@
 package com.takapedia.product.service;
 
+import com.takapedia.product.cache.ProductCache;
 import com.takapedia.product.dto.CreateProductRequest;
 import com.takapedia.product.dto.UpdateProductRequest;
 import com.takapedia.product.entity.Product;
 import com.takapedia.product.exception.ProductNotFoundException;
+import com.takapedia.product.exception.ProductVersionMismatchException;
 import com.takapedia.product.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +22,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +33,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCache productCache;
+
     @InjectMocks
     private ProductService productService;
 
@@ -49,7 +56,7 @@ class ProductServiceTest {
         UUID id = UUID.randomUUID();
         Product product = new Product(
                 id, "Laptop", "Gaming laptop",
-                new BigDecimal("15000000.00"), Instant.now()
+                new BigDecimal("15000000.00"), "Electronics", "Asus", Instant.now(), 0L
         );
         when(productRepository.findById(id)).thenReturn(Optional.of(product));
 
@@ -65,7 +72,7 @@ class ProductServiceTest {
     void add_whenValidRequest_savesAndReturnsProduct() {
         // Arrange
         CreateProductRequest request = new CreateProductRequest(
-                "Laptop", "Gaming laptop", new BigDecimal("15000000.00")
+                "Laptop", "Gaming laptop", new BigDecimal("15000000.00"), "Electronics", "Asus"
         );
         when(productRepository.save(any(Product.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -88,24 +95,26 @@ class ProductServiceTest {
     void update_whenProductExists_updatesAndReturnsProduct() {
         // Arrange
         UUID id = UUID.randomUUID();
-        Product existing = new Product(
-                id, "Laptop", "Old description",
-                new BigDecimal("15000000.00"), Instant.now()
-        );
         UpdateProductRequest request = new UpdateProductRequest(
-                "Laptop Pro", "New description", new BigDecimal("20000000.00")
+                "Laptop Pro", "New description", new BigDecimal("20000000.00"), "Electronics", "Asus"
         );
-        when(productRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(productRepository.save(any(Product.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        Product updated = new Product(
+                id, "Laptop Pro", "New description",
+                new BigDecimal("20000000.00"), "Electronics", "Asus", Instant.now(), 4L
+        );
+        when(productRepository.replace(id, 3L, "Laptop Pro", "New description",
+                new BigDecimal("20000000.00"), "Electronics", "Asus")).thenReturn(1);
+        when(productRepository.findById(id)).thenReturn(Optional.of(updated));
 
         // Act
-        Product result = productService.update(id, request);
+        Product result = productService.update(id, 3L, request);
 
         // Assert
         assertThat(result.getName()).isEqualTo("Laptop Pro");
         assertThat(result.getDescription()).isEqualTo("New description");
         assertThat(result.getPrice()).isEqualByComparingTo("20000000.00");
+        assertThat(result.getVersion()).isEqualTo(4L);
+        verify(productCache).invalidate(id);
     }
 
     @Test
@@ -113,15 +122,31 @@ class ProductServiceTest {
         // Arrange
         UUID id = UUID.randomUUID();
         UpdateProductRequest request = new UpdateProductRequest(
-                "Laptop Pro", "New description", new BigDecimal("20000000.00")
+                "Laptop Pro", "New description", new BigDecimal("20000000.00"), "Electronics", "Asus"
         );
-        when(productRepository.findById(id)).thenReturn(Optional.empty());
+        when(productRepository.replace(eq(id), isNull(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(productRepository.findVersionById(id)).thenReturn(null);
 
         // Act & Assert
-        assertThatThrownBy(() -> productService.update(id, request))
+        assertThatThrownBy(() -> productService.update(id, null, request))
                 .isInstanceOf(ProductNotFoundException.class);
     }
 
+    @Test
+    void update_whenVersionStale_throwsProductVersionMismatchException() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        UpdateProductRequest request = new UpdateProductRequest(
+                "Laptop Pro", "New description", new BigDecimal("20000000.00"), "Electronics", "Asus"
+        );
+        when(productRepository.replace(eq(id), eq(3L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(productRepository.findVersionById(id)).thenReturn(5L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> productService.update(id, 3L, request))
+                .isInstanceOf(ProductVersionMismatchException.class);
+    }
+
     @Test
     void delete_whenProductExists_callsRepositoryDelete() {
         // Arrange
@@ -132,5 +157,6 @@ class ProductServiceTest {
 
         // Assert
         verify(productRepository).deleteById(id);
+        verify(productCache).invalidate(id);
     }
 }
\ No newline at end of file